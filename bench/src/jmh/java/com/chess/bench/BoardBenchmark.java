@@ -0,0 +1,44 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.FenUtilities;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BoardBenchmark {
+
+    @Param({"INITIAL", "KIWIPETE", "MIDDLEGAME", "PROMOTIONS", "ENDGAME", "CHECKMATE"})
+    public BenchmarkPosition position;
+
+    private Board board;
+    private String fen;
+
+    @Setup
+    public void setup() {
+        this.fen = this.position.getFen();
+        this.board = FenUtilities.createGameFromFEN(this.fen);
+    }
+
+    @Benchmark
+    public Board buildBoard() {
+        return new Board.Builder()
+                .setBoardConfiguration(this.board.getBoardCopy())
+                .setEnPassantPawn(this.board.getEnPassantPawn())
+                .setMoveMaker(this.board.currentPlayer().getAlliance())
+                .build();
+    }
+
+    @Benchmark
+    public Board createGameFromFEN() {
+        return FenUtilities.createGameFromFEN(this.fen);
+    }
+
+    @Benchmark
+    public String createFENFromGame() {
+        return FenUtilities.createFENFromGame(this.board);
+    }
+}
@@ -0,0 +1,75 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.search.BoardEvaluator;
+import com.chess.engine.search.IterativeDeepening;
+import com.chess.engine.search.NnueEvaluator;
+import com.chess.engine.search.NnueNetwork;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.TaperedEvaluator;
+import com.chess.engine.search.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to complete a fixed-depth single-threaded search with the handcrafted evaluation against the bundled test
+ * network. The two evaluations search different trees, so compare nodes per second, the auxiliary "nodes" counter
+ * divided by the score, rather than the times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class EvaluatorBenchmark {
+
+    public enum Evaluator {
+        TAPERED,
+        NNUE
+    }
+
+    @Param({"INITIAL", "KIWIPETE", "MIDDLEGAME"})
+    public BenchmarkPosition position;
+
+    @Param({"TAPERED", "NNUE"})
+    public Evaluator evaluator;
+
+    @Param({"7"})
+    public int depth;
+
+    private Board board;
+    private TranspositionTable transpositionTable;
+    private BoardEvaluator boardEvaluator;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SearchCounters {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.board = FenUtilities.createGameFromFEN(this.position.getFen());
+        this.transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+        this.boardEvaluator = this.evaluator == Evaluator.NNUE ?
+                new NnueEvaluator(NnueNetwork.loadTestNetwork()) : new TaperedEvaluator();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        this.transpositionTable.clear();
+    }
+
+    @Benchmark
+    public int timeToDepth(final SearchCounters counters) {
+        final IterativeDeepening search = new IterativeDeepening(
+                new SearchLimits.Builder().setMaxDepth(this.depth).build(), this.transpositionTable, 1,
+                this.boardEvaluator);
+        search.execute(this.board);
+        counters.nodes += search.getNodesSearched();
+        return search.getCompletedDepth();
+    }
+}
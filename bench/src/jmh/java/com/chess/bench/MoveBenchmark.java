@@ -0,0 +1,106 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveBuffer;
+import com.chess.engine.board.SearchBoard;
+import com.chess.pgn.FenUtilities;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each benchmark method visits every legal move of the position once, so scores are per full move list, except
+ * isInCheckMate, which generates the legal moves of a freshly built board once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoveBenchmark {
+
+    @Param({"INITIAL", "KIWIPETE", "MIDDLEGAME", "PROMOTIONS", "ENDGAME", "CHECKMATE"})
+    public BenchmarkPosition position;
+
+    private Board board;
+    private Move[] moves;
+    private SearchBoard searchBoard;
+    private MoveBuffer moveBuffer;
+
+    @Setup
+    public void setup() {
+        this.board = FenUtilities.createGameFromFEN(this.position.getFen());
+        this.moves = this.board.currentPlayer().getLegalMoves().toArray(new Move[0]);
+        this.searchBoard = new SearchBoard(this.board);
+        this.moveBuffer = new MoveBuffer();
+    }
+
+    @Benchmark
+    public int generateIntoBuffer() {
+        this.searchBoard.generateMoves(this.moveBuffer);
+        return this.moveBuffer.size();
+    }
+
+    @Benchmark
+    public int makeUnmake() {
+        this.searchBoard.generateMoves(this.moveBuffer);
+        int legal = 0;
+        for (int i = 0; i < this.moveBuffer.size(); i++) {
+            if (this.searchBoard.makeMove(this.moveBuffer.get(i))) {
+                legal++;
+            }
+            this.searchBoard.unmakeMove();
+        }
+        return legal;
+    }
+
+    @Benchmark
+    public void execute(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    @Benchmark
+    public void makeMove(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(this.board.currentPlayer().makeMove(move));
+        }
+    }
+
+    @Benchmark
+    public void createMove(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(MoveFactory.createMove(this.board, move.getCurrentCoordinate(),
+                    move.getDestinationCoordinate()));
+        }
+    }
+
+    @Benchmark
+    public void toSan(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(move.toString());
+        }
+    }
+
+    /**
+     * A board built before every invocation, so that its players have not generated and cached their legal moves
+     * yet. Building it is not part of the measurement.
+     */
+    @State(Scope.Thread)
+    public static class FreshBoard {
+
+        private Board board;
+
+        @Setup(Level.Invocation)
+        public void setup(final MoveBenchmark benchmark) {
+            this.board = FenUtilities.createGameFromFEN(benchmark.position.getFen());
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheckMate(final FreshBoard freshBoard) {
+        return freshBoard.board.currentPlayer().isInCheckMate();
+    }
+}
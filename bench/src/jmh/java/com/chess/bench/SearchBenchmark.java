@@ -0,0 +1,60 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.search.IterativeDeepening;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to complete a fixed-depth search from an empty transposition table, by thread count. Nodes per second
+ * for each run are reported as the auxiliary "nodes" counter divided by the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SearchBenchmark {
+
+    @Param({"INITIAL", "KIWIPETE", "MIDDLEGAME"})
+    public BenchmarkPosition position;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"7"})
+    public int depth;
+
+    private Board board;
+    private TranspositionTable transpositionTable;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class SearchCounters {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.board = FenUtilities.createGameFromFEN(this.position.getFen());
+        this.transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        this.transpositionTable.clear();
+    }
+
+    @Benchmark
+    public int timeToDepth(final SearchCounters counters) {
+        final IterativeDeepening search = new IterativeDeepening(
+                new SearchLimits.Builder().setMaxDepth(this.depth).build(), this.transpositionTable, this.threads);
+        search.execute(this.board);
+        counters.nodes += search.getNodesSearched();
+        return search.getCompletedDepth();
+    }
+}
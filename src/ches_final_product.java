@@ -1,8 +1,13 @@
 import com.chess.gui.Table;
+import com.chess.uci.UciEngine;
 
 public class ches_final_product {
 
     public static void main(final String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("uci")) {
+            UciEngine.main(args);
+            return;
+        }
          Table.get().show();
     }
 }
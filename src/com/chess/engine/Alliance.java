@@ -40,6 +40,11 @@ public enum Alliance {
             return whitePlayer;
         }
 
+        @Override
+        public Alliance opposite() {
+            return BLACK;
+        }
+
         @Override
         public String toString() {
             return "White";
@@ -79,6 +84,11 @@ public enum Alliance {
             return blackPlayer;
         }
 
+        @Override
+        public Alliance opposite() {
+            return WHITE;
+        }
+
         @Override
         public String toString() {
             return "Black";
@@ -97,6 +107,8 @@ public enum Alliance {
 
     public abstract Player choosePlayerByAlliance(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer);
 
+    public abstract Alliance opposite();
+
     private static final int UP_DIRECTION = -1;
 
     private static final int DOWN_DIRECTION = 1;
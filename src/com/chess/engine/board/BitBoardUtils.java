@@ -0,0 +1,131 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public enum BitBoardUtils {
+
+    INSTANCE;
+
+    public static final long EMPTY = 0L;
+    public static final int NUM_PIECE_BITBOARDS = Alliance.values().length * PieceType.values().length;
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][] {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[][] {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    private static final long[] WHITE_PAWN_ATTACKS = initLeaperAttacks(new int[][] {{-1, -1}, {-1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = initLeaperAttacks(new int[][] {{1, -1}, {1, 1}});
+    private static final long[] BETWEEN = initBetween();
+
+    public static long bit(final int square) {
+        return 1L << square;
+    }
+
+    public static boolean isSet(final long bitboard,
+                                final int square) {
+        return (bitboard & bit(square)) != 0;
+    }
+
+    public static int pieceIndex(final Alliance alliance,
+                                 final PieceType pieceType) {
+        return alliance.ordinal() * PieceType.values().length + pieceType.ordinal();
+    }
+
+    /**
+     * Squares attacked by a pawn of the given alliance standing on square.
+     */
+    public static long pawnAttacks(final Alliance alliance,
+                                   final int square) {
+        return alliance.isWhite() ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+    }
+
+    public static long knightAttacks(final int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(final int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long rookAttacks(final int square,
+                                   final long occupancy) {
+        return MagicBitboards.rookAttacks(square, occupancy);
+    }
+
+    public static long bishopAttacks(final int square,
+                                     final long occupancy) {
+        return MagicBitboards.bishopAttacks(square, occupancy);
+    }
+
+    public static long queenAttacks(final int square,
+                                    final long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    /**
+     * The tiles strictly between two tiles on a common rank, file or diagonal, or {@link #EMPTY} if the tiles
+     * are not aligned.
+     */
+    public static long between(final int from,
+                               final int to) {
+        return BETWEEN[from * BoardUtils.NUM_TILES + to];
+    }
+
+    /**
+     * All pieces of the attacking alliance that attack tile, given the piece bitboards of a position
+     * laid out by {@link #pieceIndex(Alliance, PieceType)}.
+     */
+    public static long attackersOf(final int tile,
+                                   final Alliance attacker,
+                                   final long[] pieceBitboards,
+                                   final long occupancy) {
+        final long queens = pieceBitboards[pieceIndex(attacker, PieceType.QUEEN)];
+        return (pawnAttacks(attacker.opposite(), tile) & pieceBitboards[pieceIndex(attacker, PieceType.PAWN)]) |
+               (knightAttacks(tile) & pieceBitboards[pieceIndex(attacker, PieceType.KNIGHT)]) |
+               (kingAttacks(tile) & pieceBitboards[pieceIndex(attacker, PieceType.KING)]) |
+               (bishopAttacks(tile, occupancy) & (pieceBitboards[pieceIndex(attacker, PieceType.BISHOP)] | queens)) |
+               (rookAttacks(tile, occupancy) & (pieceBitboards[pieceIndex(attacker, PieceType.ROOK)] | queens));
+    }
+
+    /**
+     * Walks the eight rays from every tile, recording the tiles passed on the way to each tile reached. This must
+     * not use {@link MagicBitboards}, whose initialization uses this class.
+     */
+    private static long[] initBetween() {
+        final int[][] directions = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+        final long[] between = new long[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (final int[] direction : directions) {
+                long passed = EMPTY;
+                int r = (from >>> 3) + direction[0];
+                int c = (from & 7) + direction[1];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    final int to = r * BoardUtils.NUM_TILES_PER_ROW + c;
+                    between[from * BoardUtils.NUM_TILES + to] = passed;
+                    passed |= bit(to);
+                    r += direction[0];
+                    c += direction[1];
+                }
+            }
+        }
+        return between;
+    }
+
+    private static long[] initLeaperAttacks(final int[][] offsets) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int row = square >>> 3;
+            final int column = square & 7;
+            for (final int[] offset : offsets) {
+                final int r = row + offset[0];
+                final int c = column + offset[1];
+                if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    attacks[square] |= bit(r * BoardUtils.NUM_TILES_PER_ROW + c);
+                }
+            }
+        }
+        return attacks;
+    }
+
+}
@@ -16,25 +16,42 @@ import java.util.stream.Stream;
 public final class Board {
 
     private final Piece[] boardPieces;
+    private final long[] pieceBitboards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
     private final int[] whitePieceCoordinates;
     private final int[] blackPieceCoordinates;
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    private final King whiteKing;
+    private final King blackKing;
+    private final Alliance nextMoveMaker;
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long pieceKey;
+    private final long pawnKey;
+    private final long zobristKey;
+    private volatile WhitePlayer whitePlayer;
+    private volatile BlackPlayer blackPlayer;
 
     private static final Board STANDARD_BOARD = createStandardBoardImpl();
 
     private Board(final Builder builder) {
         this.boardPieces = builder.boardPieces;
-        this.whitePieceCoordinates = calculateActiveIndexes(builder.boardPieces, Alliance.WHITE);
-        this.blackPieceCoordinates = calculateActiveIndexes(builder.boardPieces, Alliance.BLACK);
+        this.pieceBitboards = builder.pieceBitboards;
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitboards, Alliance.WHITE);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitboards, Alliance.BLACK);
+        this.whitePieceCoordinates = calculateActiveIndexes(this.whiteOccupancy);
+        this.blackPieceCoordinates = calculateActiveIndexes(this.blackOccupancy);
         this.enPassantPawn = builder.enPassantPawn;
-        final Collection<Move> whiteStandardMoves = calculateLegalMoves(builder.boardPieces, this.whitePieceCoordinates);
-        final Collection<Move> blackStandardMoves = calculateLegalMoves(builder.boardPieces, this.blackPieceCoordinates);
-        this.whitePlayer = new WhitePlayer(this, establishKing(this.whitePieceCoordinates, this.boardPieces), whiteStandardMoves, blackStandardMoves);
-        this.blackPlayer = new BlackPlayer(this, establishKing(this.blackPieceCoordinates, this.boardPieces), whiteStandardMoves, blackStandardMoves);
-        this.currentPlayer = builder.nextMoveMaker.choosePlayerByAlliance(this.whitePlayer, this.blackPlayer);
+        this.whiteKing = establishKing(Alliance.WHITE);
+        this.blackKing = establishKing(Alliance.BLACK);
+        this.nextMoveMaker = builder.nextMoveMaker;
+        this.castlingRights = calculateCastlingRights();
+        this.pieceKey = builder.hasPieceKey ? builder.pieceKey : ZobristUtils.calculatePieceKey(this.pieceBitboards);
+        this.pawnKey = ZobristUtils.calculatePawnKey(this.pieceBitboards);
+        this.zobristKey = this.pieceKey ^
+                ZobristUtils.sideToMoveKey(this.nextMoveMaker) ^
+                ZobristUtils.castlingKey(this.castlingRights) ^
+                ZobristUtils.enPassantKey(calculateEnPassantTile(), this.nextMoveMaker, this.pieceBitboards);
     }
 
     @Override
@@ -46,26 +63,19 @@ public final class Board {
             return false;
         }
         final Board other = (Board) obj;
-        return Arrays.equals(this.boardPieces, other.boardPieces) &&
-                this.currentPlayer.getAlliance() == other.currentPlayer.getAlliance() &&
+        return this.zobristKey == other.zobristKey &&
+                Arrays.equals(this.boardPieces, other.boardPieces) &&
+                this.nextMoveMaker == other.nextMoveMaker &&
                 Objects.equals(this.enPassantPawn, other.enPassantPawn) &&
-                this.whitePlayer.isKingSideCastleCapable() == other.whitePlayer.isKingSideCastleCapable() &&
-                this.whitePlayer.isQueenSideCastleCapable() == other.whitePlayer.isQueenSideCastleCapable() &&
-                this.blackPlayer.isKingSideCastleCapable() == other.blackPlayer.isKingSideCastleCapable() &&
-                this.blackPlayer.isQueenSideCastleCapable() == other.blackPlayer.isQueenSideCastleCapable();
+                this.whiteKing.isKingSideCastleCapable() == other.whiteKing.isKingSideCastleCapable() &&
+                this.whiteKing.isQueenSideCastleCapable() == other.whiteKing.isQueenSideCastleCapable() &&
+                this.blackKing.isKingSideCastleCapable() == other.blackKing.isKingSideCastleCapable() &&
+                this.blackKing.isQueenSideCastleCapable() == other.blackKing.isQueenSideCastleCapable();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(
-                Arrays.hashCode(this.boardPieces),
-                this.currentPlayer.getAlliance(),
-                this.enPassantPawn,
-                this.whitePlayer.isKingSideCastleCapable(),
-                this.whitePlayer.isQueenSideCastleCapable(),
-                this.blackPlayer.isKingSideCastleCapable(),
-                this.blackPlayer.isQueenSideCastleCapable()
-        );
+        return Long.hashCode(this.zobristKey);
     }
 
     @Override
@@ -113,31 +123,95 @@ public final class Board {
     }
 
     public Collection<Move> getAllLegalMoves() {
-        return Stream.concat(this.whitePlayer.getLegalMoves().stream(),
-                             this.blackPlayer.getLegalMoves().stream()).collect(Collectors.toList());
+        return Stream.concat(whitePlayer().getLegalMoves().stream(),
+                             blackPlayer().getLegalMoves().stream()).collect(Collectors.toList());
     }
 
-    private static King establishKing(final int[] activeIndexes,
-                                      final Piece[] boardConfig) {
-        for (final int index : activeIndexes) {
-            final Piece piece = boardConfig[index];
-            if (piece.getPieceType() == Piece.PieceType.KING) {
-                return (King) piece;
-            }
+    private King establishKing(final Alliance alliance) {
+        final long kingBitboard = getPieceBitboard(alliance, Piece.PieceType.KING);
+        if (kingBitboard == BitBoardUtils.EMPTY) {
+            throw new RuntimeException("No king found for player!");
         }
-        throw new RuntimeException("No king found for player!");
+        return (King) this.boardPieces[Long.numberOfTrailingZeros(kingBitboard)];
+    }
+
+    public long getPieceBitboard(final Alliance alliance,
+                                 final Piece.PieceType pieceType) {
+        return this.pieceBitboards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    /**
+     * The piece bitboards themselves, laid out by {@link BitBoardUtils#pieceIndex}; callers must not modify them.
+     */
+    long[] getPieceBitboards() {
+        return this.pieceBitboards;
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    public long getOccupancy() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    public int getPieceCount(final Alliance alliance,
+                             final Piece.PieceType pieceType) {
+        return Long.bitCount(getPieceBitboard(alliance, pieceType));
+    }
+
+    public int getKingPosition(final Alliance alliance) {
+        return Long.numberOfTrailingZeros(getPieceBitboard(alliance, Piece.PieceType.KING));
+    }
+
+    public long getAttackersOfTile(final int tile,
+                                   final Alliance attacker) {
+        return BitBoardUtils.attackersOf(tile, attacker, this.pieceBitboards, getOccupancy());
+    }
+
+    /**
+     * Attackers of tile as if the occupied tiles were occupancy, for asking whether a tile stays attacked once a
+     * piece has moved away from it.
+     */
+    public long getAttackersOfTile(final int tile,
+                                   final Alliance attacker,
+                                   final long occupancy) {
+        return BitBoardUtils.attackersOf(tile, attacker, this.pieceBitboards, occupancy) & occupancy;
+    }
+
+    public boolean isTileAttacked(final int tile,
+                                  final Alliance attacker) {
+        return getAttackersOfTile(tile, attacker) != BitBoardUtils.EMPTY;
     }
 
     public WhitePlayer whitePlayer() {
-        return this.whitePlayer;
+        WhitePlayer player = this.whitePlayer;
+        if (player == null) {
+            player = new WhitePlayer(this, this.whiteKing);
+            this.whitePlayer = player;
+        }
+        return player;
     }
 
     public BlackPlayer blackPlayer() {
-        return this.blackPlayer;
+        BlackPlayer player = this.blackPlayer;
+        if (player == null) {
+            player = new BlackPlayer(this, this.blackKing);
+            this.blackPlayer = player;
+        }
+        return player;
     }
 
     public Player currentPlayer() {
-        return this.currentPlayer;
+        return this.nextMoveMaker.isWhite() ? whitePlayer() : blackPlayer();
+    }
+
+    public Alliance getNextMoveMaker() {
+        return this.nextMoveMaker;
+    }
+
+    public boolean isKingInCheck(final Alliance alliance) {
+        return isTileAttacked(getKingPosition(alliance), alliance.opposite());
     }
 
     public Piece getPiece(final int coordinate) {
@@ -148,6 +222,70 @@ public final class Board {
         return this.enPassantPawn;
     }
 
+    /**
+     * The Zobrist key of this position: pieces, side to move, castling rights and usable en passant file.
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    /**
+     * The Zobrist key of the pawns alone, for caching pawn structure evaluation.
+     */
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    long getPieceKey() {
+        return this.pieceKey;
+    }
+
+    private int calculateEnPassantTile() {
+        if (this.enPassantPawn == null) {
+            return -1;
+        }
+        return this.enPassantPawn.getPiecePosition() +
+               (BoardUtils.NUM_TILES_PER_ROW * this.enPassantPawn.getPieceAllegiance().getOppositeDirection());
+    }
+
+    /**
+     * Castling rights as a mask of the BoardUtils castle flags: the king and the rook of that side are both
+     * unmoved on their home tiles and the king is still capable of castling to that side.
+     */
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    private int calculateCastlingRights() {
+        int rights = 0;
+        if (isCastleCapable(this.whiteKing, 60, 63, true)) {
+            rights |= BoardUtils.WHITE_KING_SIDE_CASTLE;
+        }
+        if (isCastleCapable(this.whiteKing, 60, 56, false)) {
+            rights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+        }
+        if (isCastleCapable(this.blackKing, 4, 7, true)) {
+            rights |= BoardUtils.BLACK_KING_SIDE_CASTLE;
+        }
+        if (isCastleCapable(this.blackKing, 4, 0, false)) {
+            rights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        }
+        return rights;
+    }
+
+    private boolean isCastleCapable(final King king,
+                                    final int kingTile,
+                                    final int rookTile,
+                                    final boolean kingSide) {
+        if (king.getPiecePosition() != kingTile || !king.isFirstMove() || king.isCastled() ||
+            !(kingSide ? king.isKingSideCastleCapable() : king.isQueenSideCastleCapable())) {
+            return false;
+        }
+        final Piece rook = this.boardPieces[rookTile];
+        return rook != null && rook.getPieceType() == Piece.PieceType.ROOK &&
+               rook.getPieceAllegiance() == king.getPieceAllegiance() && rook.isFirstMove();
+    }
+
     public static Board createStandardBoard() {
         return STANDARD_BOARD;
     }
@@ -194,48 +332,67 @@ public final class Board {
         return builder.build();
     }
 
-    private Collection<Move> calculateLegalMoves(final Piece[] boardConfig,
-                                                 final int[] pieces) {
-        final Collection<Move> legalsMoves = new ArrayList<>();
-        for (final int piece_index : pieces) {
-            legalsMoves.addAll(boardConfig[piece_index].calculateLegalMoves(this));
+    private static long calculateOccupancy(final long[] pieceBitboards,
+                                           final Alliance alliance) {
+        long occupancy = BitBoardUtils.EMPTY;
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            occupancy |= pieceBitboards[BitBoardUtils.pieceIndex(alliance, pieceType)];
         }
-        return legalsMoves;
+        return occupancy;
     }
 
-    private static int[] calculateActiveIndexes(final Piece[] boardConfig,
-                                                final Alliance alliance) {
-        final int[] result = new int[boardConfig.length];
+    private static int[] calculateActiveIndexes(final long occupancy) {
+        final int[] result = new int[Long.bitCount(occupancy)];
+        long remaining = occupancy;
         int count = 0;
-        for (int idx = 0; idx < boardConfig.length; idx++) {
-            final Piece piece = boardConfig[idx];
-            if (piece != null && piece.getPieceAllegiance() == alliance) {
-                result[count++] = idx;
-            }
+        while (remaining != BitBoardUtils.EMPTY) {
+            result[count++] = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
         }
-        return Arrays.copyOf(result, count);
+        return result;
     }
 
     public static class Builder {
 
         Piece[] boardPieces;
+        final long[] pieceBitboards;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        long pieceKey;
+        boolean hasPieceKey;
 
         public Builder() {
             this.boardPieces = new Piece[BoardUtils.NUM_TILES];
+            this.pieceBitboards = new long[BitBoardUtils.NUM_PIECE_BITBOARDS];
         }
 
         public Builder setBoardConfiguration(final Piece[] boardConfig) {
             this.boardPieces = boardConfig;
+            Arrays.fill(this.pieceBitboards, BitBoardUtils.EMPTY);
+            for (int tile = 0; tile < boardConfig.length; tile++) {
+                final Piece piece = boardConfig[tile];
+                if (piece != null) {
+                    this.pieceBitboards[bitboardIndex(piece)] |= BitBoardUtils.bit(tile);
+                }
+            }
             return this;
         }
 
         public Builder setPiece(final Piece piece) {
-            this.boardPieces[piece.getPiecePosition()] = piece;
+            final int tile = piece.getPiecePosition();
+            final Piece previous = this.boardPieces[tile];
+            if (previous != null) {
+                this.pieceBitboards[bitboardIndex(previous)] &= ~BitBoardUtils.bit(tile);
+            }
+            this.boardPieces[tile] = piece;
+            this.pieceBitboards[bitboardIndex(piece)] |= BitBoardUtils.bit(tile);
             return this;
         }
 
+        private static int bitboardIndex(final Piece piece) {
+            return BitBoardUtils.pieceIndex(piece.getPieceAllegiance(), piece.getPieceType());
+        }
+
         public Builder setMoveMaker(final Alliance nextMoveMaker) {
             this.nextMoveMaker = nextMoveMaker;
             return this;
@@ -246,6 +403,16 @@ public final class Board {
             return this;
         }
 
+        /**
+         * Supplies the piece key of the finished configuration, as computed incrementally by a move, so the board
+         * does not have to hash every piece again.
+         */
+        Builder setPieceKey(final long pieceKey) {
+            this.pieceKey = pieceKey;
+            this.hasPieceKey = true;
+            return this;
+        }
+
         public Board build() {
             return new Board(this);
         }
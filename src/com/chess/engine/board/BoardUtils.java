@@ -33,6 +33,11 @@ public enum  BoardUtils {
     public static final int NUM_TILES_PER_ROW = 8;
     public static final int NUM_TILES = 64;
 
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+
     private static List<Boolean> initColumn(int columnNumber) {
         final Boolean[] column = new Boolean[NUM_TILES];
         Arrays.fill(column, false);
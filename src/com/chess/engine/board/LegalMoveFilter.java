@@ -0,0 +1,130 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Move.PawnEnPassantAttack;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Decides the legality of one alliance's pseudo-legal moves without playing them. The checkers of the king, the
+ * tiles that block or capture a single checker, and the ray each pinned piece is confined to are computed once
+ * per position; a move is then legal by a few mask tests. Castling moves are assumed to be generated legal.
+ */
+public final class LegalMoveFilter {
+
+    private static final long ALL_TILES = -1L;
+
+    private final Board board;
+    private final Alliance alliance;
+    private final int kingTile;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+    private final long[] pinRays;
+
+    public LegalMoveFilter(final Board board,
+                           final Alliance alliance) {
+        this.board = board;
+        this.alliance = alliance;
+        this.kingTile = board.getKingPosition(alliance);
+        this.checkers = board.getAttackersOfTile(this.kingTile, alliance.opposite());
+        this.checkMask = calculateCheckMask();
+        this.pinRays = new long[BoardUtils.NUM_TILES];
+        this.pinned = calculatePins();
+    }
+
+    public boolean isInCheck() {
+        return this.checkers != BitBoardUtils.EMPTY;
+    }
+
+    public boolean isDoubleCheck() {
+        return Long.bitCount(this.checkers) > 1;
+    }
+
+    public boolean isPinned(final int tile) {
+        return BitBoardUtils.isSet(this.pinned, tile);
+    }
+
+    /**
+     * Whether piece can have any legal move at all: in double check only the king can, and a pinned knight never can.
+     */
+    public boolean canMove(final Piece piece) {
+        if (piece.getPieceType() == PieceType.KING) {
+            return true;
+        }
+        return !isDoubleCheck() && !(piece.getPieceType() == PieceType.KNIGHT && isPinned(piece.getPiecePosition()));
+    }
+
+    /**
+     * Whether a pseudo-legal move of the filtered alliance leaves its own king safe.
+     */
+    public boolean isLegal(final Move move) {
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        if (move.getMovedPiece().getPieceType() == PieceType.KING) {
+            if (move.isCastlingMove()) {
+                return true;
+            }
+            final long occupancy = this.board.getOccupancy() & ~BitBoardUtils.bit(from);
+            return this.board.getAttackersOfTile(to, this.alliance.opposite(), occupancy) == BitBoardUtils.EMPTY;
+        }
+        if (isDoubleCheck()) {
+            return false;
+        }
+        if (move instanceof PawnEnPassantAttack) {
+            return isLegalEnPassant(from, to, move.getAttackedPiece().getPiecePosition());
+        }
+        if (isPinned(from) && !BitBoardUtils.isSet(this.pinRays[from], to)) {
+            return false;
+        }
+        return BitBoardUtils.isSet(this.checkMask, to);
+    }
+
+    /**
+     * En passant removes two pieces from one rank, which can expose the king along it, so the position after the
+     * capture is checked directly.
+     */
+    private boolean isLegalEnPassant(final int from,
+                                     final int to,
+                                     final int capturedTile) {
+        final long occupancy = (this.board.getOccupancy() &
+                ~BitBoardUtils.bit(from) & ~BitBoardUtils.bit(capturedTile)) | BitBoardUtils.bit(to);
+        return this.board.getAttackersOfTile(this.kingTile, this.alliance.opposite(), occupancy) == BitBoardUtils.EMPTY;
+    }
+
+    private long calculateCheckMask() {
+        if (this.checkers == BitBoardUtils.EMPTY) {
+            return ALL_TILES;
+        }
+        if (Long.bitCount(this.checkers) > 1) {
+            return BitBoardUtils.EMPTY;
+        }
+        return this.checkers | BitBoardUtils.between(this.kingTile, Long.numberOfTrailingZeros(this.checkers));
+    }
+
+    private long calculatePins() {
+        final Alliance enemy = this.alliance.opposite();
+        final long queens = this.board.getPieceBitboard(enemy, PieceType.QUEEN);
+        final long snipers =
+                (MagicBitboards.rookAttacks(this.kingTile, BitBoardUtils.EMPTY) &
+                        (this.board.getPieceBitboard(enemy, PieceType.ROOK) | queens)) |
+                (MagicBitboards.bishopAttacks(this.kingTile, BitBoardUtils.EMPTY) &
+                        (this.board.getPieceBitboard(enemy, PieceType.BISHOP) | queens));
+        final long occupancy = this.board.getOccupancy();
+        final long own = this.board.getOccupancy(this.alliance);
+        long pinned = BitBoardUtils.EMPTY;
+        long remaining = snipers;
+        while (remaining != 0L) {
+            final int sniper = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            final long between = BitBoardUtils.between(this.kingTile, sniper);
+            final long blockers = between & occupancy;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0L) {
+                final int pinnedTile = Long.numberOfTrailingZeros(blockers);
+                pinned |= blockers;
+                this.pinRays[pinnedTile] = between | BitBoardUtils.bit(sniper);
+            }
+        }
+        return pinned;
+    }
+}
@@ -0,0 +1,100 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Collection;
+
+/**
+ * A player's legal moves keyed by from tile, to tile and promotion piece type, so a move can be resolved or
+ * validated in constant time. The moves are held in a small open-addressing table sized to the move count.
+ *
+ * Looking up a from/to pair without a promotion type answers the first move generated for it, which for a
+ * promotion is the first promotion choice generated.
+ */
+public final class LegalMoveIndex {
+
+    private static final int EMPTY_KEY = 0;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+
+    private final int[] keys;
+    private final Move[] moves;
+    private final int mask;
+
+    public LegalMoveIndex(final Collection<Move> legalMoves) {
+        final int capacity = Integer.highestOneBit(Math.max(8, legalMoves.size() * 4) - 1) << 1;
+        this.keys = new int[capacity];
+        this.moves = new Move[capacity];
+        this.mask = capacity - 1;
+        for (final Move move : legalMoves) {
+            final int from = move.getCurrentCoordinate();
+            final int to = move.getDestinationCoordinate();
+            insert(key(from, to, null), move);
+            if (move instanceof PawnPromotion) {
+                insert(key(from, to, ((PawnPromotion) move).getPromotionPiece().getPieceType()), move);
+            }
+        }
+    }
+
+    /**
+     * The legal move from currentCoordinate to destinationCoordinate, or {@link MoveUtils#NULL_MOVE}.
+     */
+    public Move get(final int currentCoordinate,
+                    final int destinationCoordinate) {
+        return get(currentCoordinate, destinationCoordinate, null);
+    }
+
+    /**
+     * The legal move from currentCoordinate to destinationCoordinate promoting to promotionType, or any legal move
+     * between the two tiles when promotionType is null, or {@link MoveUtils#NULL_MOVE}.
+     */
+    public Move get(final int currentCoordinate,
+                    final int destinationCoordinate,
+                    final PieceType promotionType) {
+        if (!BoardUtils.isValidTileCoordinate(currentCoordinate) ||
+            !BoardUtils.isValidTileCoordinate(destinationCoordinate)) {
+            return MoveUtils.NULL_MOVE;
+        }
+        final int key = key(currentCoordinate, destinationCoordinate, promotionType);
+        for (int slot = slot(key); this.keys[slot] != EMPTY_KEY; slot = (slot + 1) & this.mask) {
+            if (this.keys[slot] == key) {
+                return this.moves[slot];
+            }
+        }
+        return MoveUtils.NULL_MOVE;
+    }
+
+    public boolean contains(final Move move) {
+        final PieceType promotionType = move instanceof PawnPromotion ?
+                ((PawnPromotion) move).getPromotionPiece().getPieceType() : null;
+        final Move legalMove = get(move.getCurrentCoordinate(), move.getDestinationCoordinate(), promotionType);
+        return legalMove == move || (legalMove != MoveUtils.NULL_MOVE && legalMove.equals(move));
+    }
+
+    private void insert(final int key,
+                        final Move move) {
+        int slot = slot(key);
+        while (this.keys[slot] != EMPTY_KEY) {
+            if (this.keys[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.moves[slot] = move;
+    }
+
+    private int slot(final int key) {
+        return (key * 0x9E3779B1 >>> 16) & this.mask;
+    }
+
+    /**
+     * Never {@link #EMPTY_KEY}, since a move's from and to tiles differ.
+     */
+    private static int key(final int from,
+                           final int to,
+                           final PieceType promotionType) {
+        return from | (to << TO_SHIFT) | ((promotionType == null ? 0 : promotionType.ordinal() + 1) << PROMOTION_SHIFT);
+    }
+}
@@ -0,0 +1,206 @@
+package com.chess.engine.board;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Rook and bishop attack sets by magic bitboard lookup: the occupancy on a slider's relevant rays is multiplied
+ * by a per-square magic number and the top bits index a precomputed table of attack sets.
+ *
+ * The magic numbers are read from the bundled {@code magics.txt} resource. Squares missing from the resource, or
+ * whose magic does not index its table without collisions, get a fresh magic from a seeded search at class
+ * initialization, as do all squares when the {@code chess.magics.generate} system property is true. Running
+ * {@link #main(String[])} prints a resource file for the current magics.
+ */
+public enum MagicBitboards {
+
+    INSTANCE;
+
+    private static final String MAGICS_RESOURCE = "magics.txt";
+    private static final String GENERATE_PROPERTY = "chess.magics.generate";
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_ATTACKS;
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_ATTACKS;
+
+    static {
+        final long[][] bundled = Boolean.getBoolean(GENERATE_PROPERTY) ? null : loadBundledMagics();
+        final SplittableRandom random = new SplittableRandom(SEED);
+        ROOK_ATTACKS = initSlider(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS,
+                bundled == null ? null : bundled[0], random);
+        BISHOP_ATTACKS = initSlider(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS,
+                bundled == null ? null : bundled[1], random);
+    }
+
+    public static long rookAttacks(final int square,
+                                   final long occupancy) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[square] +
+                (int) (((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(final int square,
+                                     final long occupancy) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[square] +
+                (int) (((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(final int square,
+                                    final long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    /**
+     * Prints the magic numbers in the format of the bundled resource.
+     */
+    public static void main(final String[] args) {
+        System.out.println("# Magic numbers for MagicBitboards: 64 rook lines, then 64 bishop lines, one per tile.");
+        for (final long magic : ROOK_MAGICS) {
+            System.out.printf("%016x%n", magic);
+        }
+        for (final long magic : BISHOP_MAGICS) {
+            System.out.printf("%016x%n", magic);
+        }
+    }
+
+    private static long[] initSlider(final int[][] directions,
+                                     final long[] masks,
+                                     final long[] magics,
+                                     final int[] shifts,
+                                     final int[] offsets,
+                                     final long[] bundledMagics,
+                                     final SplittableRandom random) {
+        int size = 0;
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            masks[square] = relevantOccupancyMask(square, directions);
+            shifts[square] = Long.SIZE - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+        final long[] attacks = new long[size];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int bits = Long.bitCount(masks[square]);
+            final long[] occupancies = new long[1 << bits];
+            final long[] references = new long[1 << bits];
+            long subset = 0L;
+            int count = 0;
+            do {
+                occupancies[count] = subset;
+                references[count] = slidingAttacks(square, subset, directions);
+                count++;
+                subset = (subset - masks[square]) & masks[square];
+            } while (subset != 0L);
+
+            final long[] table = new long[1 << bits];
+            long magic = bundledMagics == null ? 0L : bundledMagics[square];
+            if (magic == 0L || !fillTable(magic, shifts[square], occupancies, references, table)) {
+                do {
+                    magic = random.nextLong() & random.nextLong() & random.nextLong();
+                } while (Long.bitCount((masks[square] * magic) & 0xFF00000000000000L) < 6 ||
+                         !fillTable(magic, shifts[square], occupancies, references, table));
+            }
+            magics[square] = magic;
+            System.arraycopy(table, 0, attacks, offsets[square], table.length);
+        }
+        return attacks;
+    }
+
+    private static boolean fillTable(final long magic,
+                                     final int shift,
+                                     final long[] occupancies,
+                                     final long[] references,
+                                     final long[] table) {
+        Arrays.fill(table, 0L);
+        for (int i = 0; i < occupancies.length; i++) {
+            final int index = (int) ((occupancies[i] * magic) >>> shift);
+            if (table[index] == 0L) {
+                table[index] = references[i];
+            } else if (table[index] != references[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The tiles whose occupancy can change the attack set: every ray tile except the last one before the edge.
+     */
+    private static long relevantOccupancyMask(final int square,
+                                              final int[][] directions) {
+        long mask = BitBoardUtils.EMPTY;
+        for (final int[] direction : directions) {
+            int r = (square >>> 3) + direction[0];
+            int c = (square & 7) + direction[1];
+            while (isOnBoard(r + direction[0], c + direction[1])) {
+                mask |= BitBoardUtils.bit(r * BoardUtils.NUM_TILES_PER_ROW + c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(final int square,
+                                       final long occupancy,
+                                       final int[][] directions) {
+        long attacks = BitBoardUtils.EMPTY;
+        for (final int[] direction : directions) {
+            int r = (square >>> 3) + direction[0];
+            int c = (square & 7) + direction[1];
+            while (isOnBoard(r, c)) {
+                final long target = BitBoardUtils.bit(r * BoardUtils.NUM_TILES_PER_ROW + c);
+                attacks |= target;
+                if ((occupancy & target) != 0) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row,
+                                     final int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private static long[][] loadBundledMagics() {
+        final InputStream in = MagicBitboards.class.getResourceAsStream(MAGICS_RESOURCE);
+        if (in == null) {
+            return null;
+        }
+        final long[][] magics = new long[2][BoardUtils.NUM_TILES];
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            int count = 0;
+            String line;
+            while ((line = reader.readLine()) != null && count < 2 * BoardUtils.NUM_TILES) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                magics[count / BoardUtils.NUM_TILES][count % BoardUtils.NUM_TILES] = Long.parseUnsignedLong(line, 16);
+                count++;
+            }
+        } catch (final IOException | NumberFormatException e) {
+            return null;
+        }
+        return magics;
+    }
+}
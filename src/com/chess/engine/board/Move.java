@@ -89,10 +89,25 @@ public abstract class Move {
         newBoardConfig[this.destinationCoordinate] = this.movedPiece.getMovedPiece(this);
         final Builder builder = new Builder();
         return builder.setBoardConfiguration(newBoardConfig)
+                .setPieceKey(calculatePieceKey())
                 .setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
                 .build();
     }
 
+    /**
+     * The Zobrist piece key of the board after this move, derived from the key of the board it is made on.
+     */
+    long calculatePieceKey() {
+        long pieceKey = this.board.getPieceKey() ^
+                ZobristUtils.pieceKey(this.movedPiece) ^
+                ZobristUtils.pieceKey(this.movedPiece.getPieceAllegiance(), this.movedPiece.getPieceType(),
+                                      this.destinationCoordinate);
+        if (isAttack()) {
+            pieceKey ^= ZobristUtils.pieceKey(getAttackedPiece());
+        }
+        return pieceKey;
+    }
+
     public Board undo() {
         final Board.Builder builder = new Board.Builder();
         for (final Piece piece : this.board.getAllPieces()) {
@@ -118,10 +133,6 @@ public abstract class Move {
             }
             if (move.getMovedPiece().getPieceType() == movedPiece.getPieceType() &&
                 move.getDestinationCoordinate() == this.getDestinationCoordinate()) {
-                final MoveTransition otherTransition = board.currentPlayer().makeMove(move);
-                if (!otherTransition.getMoveStatus().isDone()) {
-                    continue;
-                }
                 final String otherFrom = BoardUtils.INSTANCE.getPositionAtCoordinate(move.getCurrentCoordinate());
                 final char otherFile = otherFrom.charAt(0);
                 final char otherRank = otherFrom.charAt(1);
@@ -181,6 +192,10 @@ public abstract class Move {
             this.promotionPiece = promotionPiece;
         }
 
+        public Piece getPromotionPiece() {
+            return this.promotionPiece;
+        }
+
         @Override
         public boolean equals(final Object o) {
             if (this == o) return true;
@@ -216,9 +231,19 @@ public abstract class Move {
 
             builder.setPiece(this.promotionPiece.getMovedPiece(this));
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
+            builder.setPieceKey(calculatePieceKey());
             return builder.build();
         }
 
+        @Override
+        long calculatePieceKey() {
+            return this.decoratedMove.calculatePieceKey() ^
+                   ZobristUtils.pieceKey(this.promotedPawn.getPieceAllegiance(), this.promotedPawn.getPieceType(),
+                                         this.destinationCoordinate) ^
+                   ZobristUtils.pieceKey(this.promotionPiece.getPieceAllegiance(), this.promotionPiece.getPieceType(),
+                                         this.destinationCoordinate);
+        }
+
 
         @Override
         public boolean isAttack() {
@@ -377,6 +402,7 @@ public abstract class Move {
             }
             builder.setPiece(this.movedPiece.getMovedPiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setPieceKey(calculatePieceKey());
             return builder.build();
         }
 
@@ -420,6 +446,7 @@ public abstract class Move {
             newBoardConfig[this.destinationCoordinate] = movedPawn;
             final Builder builder = new Builder();
             return builder.setBoardConfiguration(newBoardConfig)
+                          .setPieceKey(calculatePieceKey())
                           .setEnPassantPawn(movedPawn)
                           .setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
                           .build();
@@ -468,10 +495,19 @@ public abstract class Move {
             newBoardConfig[this.castleRookDestination] = newRook;
             final Builder builder = new Builder();
             return builder.setBoardConfiguration(newBoardConfig)
+                          .setPieceKey(calculatePieceKey())
                           .setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance())
                           .build();
         }
 
+        @Override
+        long calculatePieceKey() {
+            return super.calculatePieceKey() ^
+                   ZobristUtils.pieceKey(this.castleRook) ^
+                   ZobristUtils.pieceKey(this.castleRook.getPieceAllegiance(), this.castleRook.getPieceType(),
+                                         this.castleRookDestination);
+        }
+
         @Override
         public int hashCode() {
             final int prime = 31;
@@ -629,27 +665,16 @@ public abstract class Move {
         public static Move createMove(final Board board,
                                       final int currentCoordinate,
                                       final int destinationCoordinate) {
-            for (final Move move : board.getAllLegalMoves()) {
-                if (move.getCurrentCoordinate() == currentCoordinate &&
-                    move.getDestinationCoordinate() == destinationCoordinate) {
-                    return move;
-                }
-            }
-            return MoveUtils.NULL_MOVE;
+            final Move move = board.currentPlayer().getLegalMove(currentCoordinate, destinationCoordinate);
+            return move != MoveUtils.NULL_MOVE ? move :
+                    board.currentPlayer().getOpponent().getLegalMove(currentCoordinate, destinationCoordinate);
         }
 
         public static Move createPromotionMove(final Board board,
                                                final int currentCoordinate,
                                                final int destinationCoordinate,
                                                final Piece.PieceType pieceType) {
-            for (final Move move : MoveUtils.getPromotionOnlyMoves(board.currentPlayer())) {
-                final PawnPromotion pawnPromotionMove = (PawnPromotion)move;
-                if (move.getCurrentCoordinate() == currentCoordinate &&
-                    move.getDestinationCoordinate() == destinationCoordinate && pawnPromotionMove.promotionPiece.getPieceType() == pieceType) {
-                    return move;
-                }
-            }
-            return MoveUtils.NULL_MOVE;
+            return board.currentPlayer().getLegalMove(currentCoordinate, destinationCoordinate, pieceType);
         }
 
     }
@@ -0,0 +1,73 @@
+package com.chess.engine.board;
+
+/**
+ * A reusable list of {@link MoveEncoding} moves: a preallocated int array and a count. Search keeps one per ply
+ * so that generating moves never allocates.
+ */
+public final class MoveBuffer {
+
+    /**
+     * More than the largest number of pseudo-legal moves in any reachable position (218 legal).
+     */
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves;
+    private int size;
+
+    public MoveBuffer() {
+        this.moves = new int[MAX_MOVES];
+    }
+
+    public void add(final int move) {
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    public void set(final int index,
+                    final int move) {
+        this.moves[index] = move;
+    }
+
+    public void swap(final int first,
+                     final int second) {
+        final int move = this.moves[first];
+        this.moves[first] = this.moves[second];
+        this.moves[second] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public boolean contains(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(MoveEncoding.toString(this.moves[i]));
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -0,0 +1,161 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.KingSideCastleMove;
+import com.chess.engine.board.Move.PawnEnPassantAttack;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.Move.QueenSideCastleMove;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Moves packed into an int, for move lists, transposition tables and history tables that should not hold
+ * {@link Move} objects.
+ *
+ * <pre>
+ *   bits  0- 5  from tile
+ *   bits  6-11  to tile
+ *   bits 12-14  kind (QUIET, PAWN_JUMP, KING_CASTLE, QUEEN_CASTLE, CAPTURE, EN_PASSANT, PROMOTION, PROMOTION_CAPTURE)
+ *   bits 15-17  moved piece type ordinal
+ *   bits 18-20  captured piece type ordinal + 1, 0 if none
+ *   bits 21-23  promotion piece type ordinal + 1, 0 if none
+ * </pre>
+ *
+ * A move always has from != to, so {@link #NONE} (0) never encodes a real move.
+ */
+public enum MoveEncoding {
+
+    INSTANCE;
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 6;
+    public static final int PROMOTION_CAPTURE = 7;
+
+    private static final int TILE_MASK = 0x3F;
+    private static final int FIELD_MASK = 0x7;
+    private static final int TO_SHIFT = 6;
+    private static final int KIND_SHIFT = 12;
+    private static final int MOVED_SHIFT = 15;
+    private static final int CAPTURED_SHIFT = 18;
+    private static final int PROMOTION_SHIFT = 21;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    public static int encode(final int from,
+                             final int to,
+                             final int kind,
+                             final PieceType movedType,
+                             final PieceType capturedType,
+                             final PieceType promotionType) {
+        return from |
+               (to << TO_SHIFT) |
+               (kind << KIND_SHIFT) |
+               (movedType.ordinal() << MOVED_SHIFT) |
+               ((capturedType == null ? 0 : capturedType.ordinal() + 1) << CAPTURED_SHIFT) |
+               ((promotionType == null ? 0 : promotionType.ordinal() + 1) << PROMOTION_SHIFT);
+    }
+
+    public static int encode(final Move move) {
+        final PieceType capturedType = move.isAttack() ? move.getAttackedPiece().getPieceType() : null;
+        final PieceType promotionType;
+        final int kind;
+        if (move instanceof PawnPromotion) {
+            promotionType = ((PawnPromotion) move).getPromotionPiece().getPieceType();
+            kind = move.isAttack() ? PROMOTION_CAPTURE : PROMOTION;
+        } else {
+            promotionType = null;
+            if (move instanceof PawnEnPassantAttack) {
+                kind = EN_PASSANT;
+            } else if (move.isAttack()) {
+                kind = CAPTURE;
+            } else if (move instanceof PawnJump) {
+                kind = PAWN_JUMP;
+            } else if (move instanceof KingSideCastleMove) {
+                kind = KING_CASTLE;
+            } else if (move instanceof QueenSideCastleMove) {
+                kind = QUEEN_CASTLE;
+            } else {
+                kind = QUIET;
+            }
+        }
+        return encode(move.getCurrentCoordinate(), move.getDestinationCoordinate(), kind,
+                move.getMovedPiece().getPieceType(), capturedType, promotionType);
+    }
+
+    /**
+     * The legal move of board's current player that encodes to move, or {@link MoveUtils#NULL_MOVE}.
+     */
+    public static Move decode(final Board board,
+                              final int move) {
+        if (move != NONE) {
+            final Move candidate = board.currentPlayer().getLegalMove(from(move), to(move), promotionPieceType(move));
+            if (candidate != MoveUtils.NULL_MOVE && encode(candidate) == move) {
+                return candidate;
+            }
+        }
+        return MoveUtils.NULL_MOVE;
+    }
+
+    public static int from(final int move) {
+        return move & TILE_MASK;
+    }
+
+    public static int to(final int move) {
+        return (move >>> TO_SHIFT) & TILE_MASK;
+    }
+
+    public static int kind(final int move) {
+        return (move >>> KIND_SHIFT) & FIELD_MASK;
+    }
+
+    public static boolean isCapture(final int move) {
+        return ((move >>> CAPTURED_SHIFT) & FIELD_MASK) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return kind(move) >= PROMOTION;
+    }
+
+    public static boolean isCastle(final int move) {
+        return kind(move) == KING_CASTLE || kind(move) == QUEEN_CASTLE;
+    }
+
+    public static PieceType movedPieceType(final int move) {
+        return PIECE_TYPES[(move >>> MOVED_SHIFT) & FIELD_MASK];
+    }
+
+    /**
+     * The type of the captured piece, or null for a non-capture.
+     */
+    public static PieceType capturedPieceType(final int move) {
+        final int type = (move >>> CAPTURED_SHIFT) & FIELD_MASK;
+        return type == 0 ? null : PIECE_TYPES[type - 1];
+    }
+
+    /**
+     * The type of the promotion piece, or null for a non-promotion.
+     */
+    public static PieceType promotionPieceType(final int move) {
+        final int type = (move >>> PROMOTION_SHIFT) & FIELD_MASK;
+        return type == 0 ? null : PIECE_TYPES[type - 1];
+    }
+
+    /**
+     * Long algebraic notation as used by UCI, e.g. e2e4 or e7e8q.
+     */
+    public static String toString(final int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        final String notation = BoardUtils.INSTANCE.getPositionAtCoordinate(from(move)) +
+                                BoardUtils.INSTANCE.getPositionAtCoordinate(to(move));
+        final PieceType promotionType = promotionPieceType(move);
+        return promotionType == null ? notation : notation + promotionType.toString().toLowerCase();
+    }
+}
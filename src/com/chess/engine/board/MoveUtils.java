@@ -3,6 +3,7 @@ package com.chess.engine.board;
 import com.chess.engine.player.Player;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import static com.chess.engine.board.Move.*;
@@ -13,6 +14,9 @@ public enum MoveUtils {
 
     public static final Move NULL_MOVE = new NullMove();
 
+    /**
+     * The captures of player, most valuable victim first and least valuable attacker first among equal victims.
+     */
     public static List<Move> getQuiescenceMoves(final Player player) {
         final List<Move> interestingMoves = new ArrayList<>();
         for (final Move move : player.getLegalMoves()) {
@@ -20,9 +24,14 @@ public enum MoveUtils {
                 interestingMoves.add(move);
             }
         }
+        interestingMoves.sort(Comparator.comparingInt(MoveUtils::mvvLva).reversed());
         return interestingMoves;
     }
 
+    private static int mvvLva(final Move move) {
+        return 10 * move.getAttackedPiece().getPieceValue() - move.getMovedPiece().getPieceValue();
+    }
+
     public static List<Move> getPromotionOnlyMoves(final Player player) {
         final List<Move> promotions = new ArrayList<>();
         for (final Move move : player.getLegalMoves()) {
@@ -40,23 +49,12 @@ public enum MoveUtils {
                 BoardUtils.INSTANCE.getCoordinateAtPosition(to));
     }
 
-    public static class Line {
-        private final List<Integer> coordinates;
-
-        public Line() {
-            this.coordinates = new ArrayList<>();
-        }
-
-        public void addCoordinate(final int coordinate) {
-            this.coordinates.add(coordinate);
-        }
-
-        public List<Integer> getLineCoordinates() {
-            return this.coordinates;
-        }
-
-        public boolean isEmpty() {
-            return this.coordinates.isEmpty();
+    public static String toLongAlgebraicNotation(final Move move) {
+        final String notation = BoardUtils.INSTANCE.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+                                BoardUtils.INSTANCE.getPositionAtCoordinate(move.getDestinationCoordinate());
+        if (move instanceof PawnPromotion) {
+            return notation + ((PawnPromotion) move).promotionPiece.getPieceType().toString().toLowerCase();
         }
+        return notation;
     }
 }
@@ -0,0 +1,605 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.PieceUtils;
+
+import java.util.Arrays;
+
+/**
+ * A mutable position for tree search. Moves are applied and reverted in place and the information needed to
+ * revert them is kept on a preallocated undo stack, so walking a game tree does not allocate a board per node.
+ * Use {@link #SearchBoard(Board)} and {@link #toBoard()} to convert from and to the immutable {@link Board}.
+ */
+public final class SearchBoard {
+
+    public static final int NO_EN_PASSANT = -1;
+
+    private static final int INITIAL_UNDO_CAPACITY = 256;
+    private static final int[] CASTLING_RIGHTS_MASKS = initCastlingRightsMasks();
+    private static final Piece[][] MOVED_PIECES = initMovedPieces();
+    private static final King[][] CASTLED_KINGS = initCastledKings();
+
+    private final Piece[] boardPieces;
+    private final long[] pieceBitboards;
+    private final long[] occupancy;
+    private Alliance sideToMove;
+    private int castlingRights;
+    private int enPassantTile;
+    private long zobristKey;
+    private long pawnKey;
+    private int midgameScore;
+    private int endgameScore;
+    private int gamePhase;
+
+    private int ply;
+    private int[] undoFrom;
+    private int[] undoTo;
+    private Piece[] undoMovedPiece;
+    private Piece[] undoCapturedPiece;
+    private int[] undoCapturedTile;
+    private Piece[] undoCastleRook;
+    private int[] undoCastleRookDestination;
+    private int[] undoCastlingRights;
+    private int[] undoEnPassantTile;
+    private long[] undoZobristKey;
+    private long[] gameHistory;
+    private Listener listener;
+
+    /**
+     * Follows the pieces put and removed by each move, for evaluators that keep state incrementally. The piece
+     * changes of a move arrive between {@link #moveStarted()} and {@link #moveFinished()}; unmaking a move reports
+     * only {@link #moveUndone()}, since the listener can restore its state from before the move.
+     */
+    public interface Listener {
+
+        void moveStarted();
+
+        void piecePut(int tile, Piece piece);
+
+        void pieceRemoved(int tile, Piece piece);
+
+        void moveFinished();
+
+        void moveUndone();
+
+    }
+
+    public SearchBoard(final Board board) {
+        this.boardPieces = new Piece[BoardUtils.NUM_TILES];
+        this.pieceBitboards = new long[BitBoardUtils.NUM_PIECE_BITBOARDS];
+        this.occupancy = new long[Alliance.values().length];
+        for (final Piece piece : board.getAllPieces()) {
+            putPiece(piece.getPiecePosition(), piece);
+        }
+        this.sideToMove = board.getNextMoveMaker();
+        this.castlingRights = board.getCastlingRights();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        this.enPassantTile = enPassantPawn == null ? NO_EN_PASSANT :
+                enPassantPawn.getPiecePosition() + (BoardUtils.NUM_TILES_PER_ROW * enPassantPawn.getPieceAllegiance().getOppositeDirection());
+        this.zobristKey ^= ZobristUtils.sideToMoveKey(this.sideToMove) ^
+                ZobristUtils.castlingKey(this.castlingRights) ^
+                ZobristUtils.enPassantKey(this.enPassantTile, this.sideToMove, this.pieceBitboards);
+        this.gameHistory = new long[0];
+        allocateUndoStack(INITIAL_UNDO_CAPACITY);
+    }
+
+    /**
+     * Sets the Zobrist keys of the positions played before this board's starting position, oldest first, back to
+     * the last capture or pawn move, for {@link #isRepetition()}.
+     */
+    public void setGameHistory(final long[] gameHistory) {
+        this.gameHistory = gameHistory.clone();
+    }
+
+    /**
+     * Whether the current position occurred before, in the moves made on this board or in the game history, since
+     * the last capture or pawn move.
+     */
+    public boolean isRepetition() {
+        for (int ply = this.ply - 1; ply >= 0; ply--) {
+            if (this.undoCapturedPiece[ply] != null || this.undoMovedPiece[ply].getPieceType() == Piece.PieceType.PAWN) {
+                return false;
+            }
+            if (((this.ply - ply) & 1) == 0 && this.undoZobristKey[ply] == this.zobristKey) {
+                return true;
+            }
+        }
+        for (int index = this.gameHistory.length - 1; index >= 0; index--) {
+            if (((this.ply + this.gameHistory.length - index) & 1) == 0 && this.gameHistory[index] == this.zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the listener told about every move made from now on, or none if null. There is at most one.
+     */
+    public void setListener(final Listener listener) {
+        this.listener = listener;
+    }
+
+    public Listener getListener() {
+        return this.listener;
+    }
+
+    public Board toBoard() {
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : this.boardPieces) {
+            if (piece != null) {
+                builder.setPiece(piece);
+            }
+        }
+        if (this.enPassantTile != NO_EN_PASSANT) {
+            builder.setEnPassantPawn((Pawn) this.boardPieces[this.enPassantTile +
+                    (BoardUtils.NUM_TILES_PER_ROW * this.sideToMove.getOppositeDirection())]);
+        }
+        return builder.setMoveMaker(this.sideToMove).build();
+    }
+
+    public Piece getPiece(final int tile) {
+        return this.boardPieces[tile];
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+
+    /**
+     * The Zobrist key of the current position, equal to {@link Board#getZobristKey()} of {@link #toBoard()}.
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    /**
+     * The Zobrist key of the pawns alone, equal to {@link Board#getPawnKey()} of {@link #toBoard()}.
+     */
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    /**
+     * Material and piece-square value for the midgame from White's point of view, kept incrementally.
+     *
+     * @see PieceSquareTables
+     */
+    public int getMidgameScore() {
+        return this.midgameScore;
+    }
+
+    /**
+     * Material and piece-square value for the endgame from White's point of view, kept incrementally.
+     */
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    /**
+     * The sum of the phase weights of the pieces on the board, {@link PieceSquareTables#MAX_PHASE} at the start
+     * (and possibly more after promotions).
+     */
+    public int getGamePhase() {
+        return this.gamePhase;
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    public long getPieceBitboard(final Alliance alliance,
+                                 final Piece.PieceType pieceType) {
+        return this.pieceBitboards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    /**
+     * The piece bitboards themselves, laid out by {@link BitBoardUtils#pieceIndex}; callers must not modify them.
+     */
+    long[] getPieceBitboards() {
+        return this.pieceBitboards;
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return this.occupancy[alliance.ordinal()];
+    }
+
+    public long getOccupancy() {
+        return this.occupancy[0] | this.occupancy[1];
+    }
+
+    public int getKingPosition(final Alliance alliance) {
+        return Long.numberOfTrailingZeros(getPieceBitboard(alliance, Piece.PieceType.KING));
+    }
+
+    public long getAttackersOfTile(final int tile,
+                                   final Alliance attacker) {
+        return BitBoardUtils.attackersOf(tile, attacker, this.pieceBitboards, getOccupancy());
+    }
+
+    public boolean isTileAttacked(final int tile,
+                                  final Alliance attacker) {
+        return getAttackersOfTile(tile, attacker) != BitBoardUtils.EMPTY;
+    }
+
+    public boolean isKingInCheck(final Alliance alliance) {
+        return isTileAttacked(getKingPosition(alliance), alliance.opposite());
+    }
+
+    /**
+     * Writes the pseudo-legal moves of the side to move into moves, in {@link MoveEncoding} form. Nothing is
+     * allocated; legality is checked by {@link #makeMove(int)}.
+     */
+    public void generateMoves(final MoveBuffer moves) {
+        generateMoves(moves, false);
+    }
+
+    /**
+     * Writes the pseudo-legal captures and queen promotions of the side to move, as used by quiescence search.
+     */
+    public void generateCaptures(final MoveBuffer moves) {
+        generateMoves(moves, true);
+    }
+
+    private void generateMoves(final MoveBuffer moves,
+                               final boolean capturesOnly) {
+        moves.clear();
+        final Alliance side = this.sideToMove;
+        final long own = getOccupancy(side);
+        final long enemy = getOccupancy(side.opposite());
+        final long all = own | enemy;
+        final long targets = capturesOnly ? enemy : ~own;
+
+        generatePawnMoves(moves, side, enemy, all, capturesOnly);
+        for (long knights = getPieceBitboard(side, Piece.PieceType.KNIGHT); knights != 0; knights &= knights - 1) {
+            final int from = Long.numberOfTrailingZeros(knights);
+            addPieceMoves(moves, from, Piece.PieceType.KNIGHT, BitBoardUtils.knightAttacks(from) & targets);
+        }
+        for (long bishops = getPieceBitboard(side, Piece.PieceType.BISHOP); bishops != 0; bishops &= bishops - 1) {
+            final int from = Long.numberOfTrailingZeros(bishops);
+            addPieceMoves(moves, from, Piece.PieceType.BISHOP, MagicBitboards.bishopAttacks(from, all) & targets);
+        }
+        for (long rooks = getPieceBitboard(side, Piece.PieceType.ROOK); rooks != 0; rooks &= rooks - 1) {
+            final int from = Long.numberOfTrailingZeros(rooks);
+            addPieceMoves(moves, from, Piece.PieceType.ROOK, MagicBitboards.rookAttacks(from, all) & targets);
+        }
+        for (long queens = getPieceBitboard(side, Piece.PieceType.QUEEN); queens != 0; queens &= queens - 1) {
+            final int from = Long.numberOfTrailingZeros(queens);
+            addPieceMoves(moves, from, Piece.PieceType.QUEEN, MagicBitboards.queenAttacks(from, all) & targets);
+        }
+        final int kingTile = getKingPosition(side);
+        addPieceMoves(moves, kingTile, Piece.PieceType.KING, BitBoardUtils.kingAttacks(kingTile) & targets);
+        if (!capturesOnly) {
+            generateCastles(moves, side, kingTile, all);
+        }
+    }
+
+    private void generatePawnMoves(final MoveBuffer moves,
+                                   final Alliance side,
+                                   final long enemy,
+                                   final long all,
+                                   final boolean capturesOnly) {
+        final int forward = BoardUtils.NUM_TILES_PER_ROW * side.getDirection();
+        for (long pawns = getPieceBitboard(side, Piece.PieceType.PAWN); pawns != 0; pawns &= pawns - 1) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            final int push = from + forward;
+            if (!BitBoardUtils.isSet(all, push)) {
+                if (side.isPawnPromotionSquare(push)) {
+                    addPromotions(moves, from, push, null, capturesOnly);
+                } else if (!capturesOnly) {
+                    moves.add(MoveEncoding.encode(from, push, MoveEncoding.QUIET, Piece.PieceType.PAWN, null, null));
+                    final int jump = push + forward;
+                    if (isPawnStartTile(side, from) && !BitBoardUtils.isSet(all, jump)) {
+                        moves.add(MoveEncoding.encode(from, jump, MoveEncoding.PAWN_JUMP, Piece.PieceType.PAWN,
+                                null, null));
+                    }
+                }
+            }
+            final long attacks = BitBoardUtils.pawnAttacks(side, from);
+            for (long captures = attacks & enemy; captures != 0; captures &= captures - 1) {
+                final int to = Long.numberOfTrailingZeros(captures);
+                final Piece.PieceType capturedType = this.boardPieces[to].getPieceType();
+                if (side.isPawnPromotionSquare(to)) {
+                    addPromotions(moves, from, to, capturedType, capturesOnly);
+                } else {
+                    moves.add(MoveEncoding.encode(from, to, MoveEncoding.CAPTURE, Piece.PieceType.PAWN,
+                            capturedType, null));
+                }
+            }
+            if (this.enPassantTile != NO_EN_PASSANT && BitBoardUtils.isSet(attacks, this.enPassantTile)) {
+                moves.add(MoveEncoding.encode(from, this.enPassantTile, MoveEncoding.EN_PASSANT, Piece.PieceType.PAWN,
+                        Piece.PieceType.PAWN, null));
+            }
+        }
+    }
+
+    private static void addPromotions(final MoveBuffer moves,
+                                      final int from,
+                                      final int to,
+                                      final Piece.PieceType capturedType,
+                                      final boolean queenOnly) {
+        final int kind = capturedType == null ? MoveEncoding.PROMOTION : MoveEncoding.PROMOTION_CAPTURE;
+        moves.add(MoveEncoding.encode(from, to, kind, Piece.PieceType.PAWN, capturedType, Piece.PieceType.QUEEN));
+        if (!queenOnly) {
+            moves.add(MoveEncoding.encode(from, to, kind, Piece.PieceType.PAWN, capturedType, Piece.PieceType.ROOK));
+            moves.add(MoveEncoding.encode(from, to, kind, Piece.PieceType.PAWN, capturedType, Piece.PieceType.BISHOP));
+            moves.add(MoveEncoding.encode(from, to, kind, Piece.PieceType.PAWN, capturedType, Piece.PieceType.KNIGHT));
+        }
+    }
+
+    private void addPieceMoves(final MoveBuffer moves,
+                               final int from,
+                               final Piece.PieceType pieceType,
+                               final long destinations) {
+        for (long remaining = destinations; remaining != 0; remaining &= remaining - 1) {
+            final int to = Long.numberOfTrailingZeros(remaining);
+            final Piece target = this.boardPieces[to];
+            moves.add(target == null ?
+                    MoveEncoding.encode(from, to, MoveEncoding.QUIET, pieceType, null, null) :
+                    MoveEncoding.encode(from, to, MoveEncoding.CAPTURE, pieceType, target.getPieceType(), null));
+        }
+    }
+
+    private void generateCastles(final MoveBuffer moves,
+                                 final Alliance side,
+                                 final int kingTile,
+                                 final long all) {
+        final int kingSideRight = side.isWhite() ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE;
+        final int queenSideRight = side.isWhite() ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castlingRights & (kingSideRight | queenSideRight)) == 0 || isTileAttacked(kingTile, side.opposite())) {
+            return;
+        }
+        if ((this.castlingRights & kingSideRight) != 0 &&
+            (all & (BitBoardUtils.bit(kingTile + 1) | BitBoardUtils.bit(kingTile + 2))) == 0 &&
+            !isTileAttacked(kingTile + 1, side.opposite()) && !isTileAttacked(kingTile + 2, side.opposite())) {
+            moves.add(MoveEncoding.encode(kingTile, kingTile + 2, MoveEncoding.KING_CASTLE, Piece.PieceType.KING,
+                    null, null));
+        }
+        if ((this.castlingRights & queenSideRight) != 0 &&
+            (all & (BitBoardUtils.bit(kingTile - 1) | BitBoardUtils.bit(kingTile - 2) | BitBoardUtils.bit(kingTile - 3))) == 0 &&
+            !isTileAttacked(kingTile - 1, side.opposite()) && !isTileAttacked(kingTile - 2, side.opposite())) {
+            moves.add(MoveEncoding.encode(kingTile, kingTile - 2, MoveEncoding.QUEEN_CASTLE, Piece.PieceType.KING,
+                    null, null));
+        }
+    }
+
+    private static boolean isPawnStartTile(final Alliance side,
+                                           final int tile) {
+        return side.isWhite() ? BoardUtils.SEVENTH_ROW.get(tile) : BoardUtils.SECOND_ROW.get(tile);
+    }
+
+    /**
+     * Applies a pseudo-legal move of the side to move. Detached {@link Move} objects are converted with
+     * {@link MoveEncoding#encode(Move)}.
+     *
+     * @see #makeMove(int)
+     */
+    public boolean makeMove(final Move move) {
+        return makeMove(MoveEncoding.encode(move));
+    }
+
+    /**
+     * Applies a pseudo-legal move, in {@link MoveEncoding} form, for the side to move. Returns false, with the
+     * move already applied, when it leaves the mover's king attacked; the caller is expected to
+     * {@link #unmakeMove()} in either case.
+     */
+    public boolean makeMove(final int move) {
+        final int from = MoveEncoding.from(move);
+        final int to = MoveEncoding.to(move);
+        final int kind = MoveEncoding.kind(move);
+        final Piece movedPiece = this.boardPieces[from];
+        final Alliance mover = this.sideToMove;
+        if (this.ply == this.undoFrom.length) {
+            allocateUndoStack(this.ply * 2);
+        }
+        this.undoFrom[this.ply] = from;
+        this.undoTo[this.ply] = to;
+        this.undoMovedPiece[this.ply] = movedPiece;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantTile[this.ply] = this.enPassantTile;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+        this.undoCapturedPiece[this.ply] = null;
+        this.undoCastleRook[this.ply] = null;
+        if (this.listener != null) {
+            this.listener.moveStarted();
+        }
+        final long previousStateKey = ZobristUtils.castlingKey(this.castlingRights) ^
+                ZobristUtils.enPassantKey(this.enPassantTile, mover, this.pieceBitboards);
+
+        if (MoveEncoding.isCapture(move)) {
+            final int capturedTile = kind == MoveEncoding.EN_PASSANT ?
+                    to - BoardUtils.NUM_TILES_PER_ROW * mover.getDirection() : to;
+            this.undoCapturedPiece[this.ply] = this.boardPieces[capturedTile];
+            this.undoCapturedTile[this.ply] = capturedTile;
+            removePiece(capturedTile);
+        }
+        removePiece(from);
+        if (kind == MoveEncoding.KING_CASTLE || kind == MoveEncoding.QUEEN_CASTLE) {
+            final int rookTile = kind == MoveEncoding.KING_CASTLE ? to + 1 : to - 2;
+            final int rookDestination = kind == MoveEncoding.KING_CASTLE ? to - 1 : to + 1;
+            this.undoCastleRook[this.ply] = this.boardPieces[rookTile];
+            this.undoCastleRookDestination[this.ply] = rookDestination;
+            removePiece(rookTile);
+            putPiece(rookDestination, movedPiece(mover, Piece.PieceType.ROOK, rookDestination));
+            putPiece(to, CASTLED_KINGS[mover.ordinal()][to]);
+        } else if (MoveEncoding.isPromotion(move)) {
+            putPiece(to, movedPiece(mover, MoveEncoding.promotionPieceType(move), to));
+        } else {
+            putPiece(to, movedPiece(mover, movedPiece.getPieceType(), to));
+        }
+
+        this.castlingRights &= CASTLING_RIGHTS_MASKS[from] & CASTLING_RIGHTS_MASKS[to];
+        this.enPassantTile = kind == MoveEncoding.PAWN_JUMP ? (from + to) / 2 : NO_EN_PASSANT;
+        this.sideToMove = mover.opposite();
+        this.zobristKey ^= previousStateKey ^
+                ZobristUtils.castlingKey(this.castlingRights) ^
+                ZobristUtils.enPassantKey(this.enPassantTile, this.sideToMove, this.pieceBitboards) ^
+                ZobristUtils.sideToMoveKey(Alliance.BLACK);
+        this.ply++;
+        if (this.listener != null) {
+            this.listener.moveFinished();
+        }
+        return !isKingInCheck(mover);
+    }
+
+    public void unmakeMove() {
+        final Listener moveListener = this.listener;
+        this.listener = null;
+        this.ply--;
+        final int from = this.undoFrom[this.ply];
+        final int to = this.undoTo[this.ply];
+        removePiece(to);
+        putPiece(from, this.undoMovedPiece[this.ply]);
+        final Piece capturedPiece = this.undoCapturedPiece[this.ply];
+        if (capturedPiece != null) {
+            putPiece(this.undoCapturedTile[this.ply], capturedPiece);
+        }
+        final Piece castleRook = this.undoCastleRook[this.ply];
+        if (castleRook != null) {
+            removePiece(this.undoCastleRookDestination[this.ply]);
+            putPiece(castleRook.getPiecePosition(), castleRook);
+        }
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantTile = this.undoEnPassantTile[this.ply];
+        this.sideToMove = this.sideToMove.opposite();
+        this.zobristKey = this.undoZobristKey[this.ply];
+        this.undoMovedPiece[this.ply] = null;
+        this.undoCapturedPiece[this.ply] = null;
+        this.undoCastleRook[this.ply] = null;
+        this.listener = moveListener;
+        if (moveListener != null) {
+            moveListener.moveUndone();
+        }
+    }
+
+    private void putPiece(final int tile,
+                          final Piece piece) {
+        final long bit = BitBoardUtils.bit(tile);
+        this.boardPieces[tile] = piece;
+        this.pieceBitboards[BitBoardUtils.pieceIndex(piece.getPieceAllegiance(), piece.getPieceType())] |= bit;
+        this.occupancy[piece.getPieceAllegiance().ordinal()] |= bit;
+        this.zobristKey ^= ZobristUtils.pieceKey(piece.getPieceAllegiance(), piece.getPieceType(), tile);
+        if (piece.getPieceType() == Piece.PieceType.PAWN) {
+            this.pawnKey ^= ZobristUtils.pieceKey(piece.getPieceAllegiance(), Piece.PieceType.PAWN, tile);
+        }
+        this.midgameScore += PieceSquareTables.midgame(piece.getPieceAllegiance(), piece.getPieceType(), tile);
+        this.endgameScore += PieceSquareTables.endgame(piece.getPieceAllegiance(), piece.getPieceType(), tile);
+        this.gamePhase += PieceSquareTables.phase(piece.getPieceType());
+        if (this.listener != null) {
+            this.listener.piecePut(tile, piece);
+        }
+    }
+
+    private void removePiece(final int tile) {
+        final Piece piece = this.boardPieces[tile];
+        final long bit = BitBoardUtils.bit(tile);
+        this.boardPieces[tile] = null;
+        this.pieceBitboards[BitBoardUtils.pieceIndex(piece.getPieceAllegiance(), piece.getPieceType())] &= ~bit;
+        this.occupancy[piece.getPieceAllegiance().ordinal()] &= ~bit;
+        this.zobristKey ^= ZobristUtils.pieceKey(piece.getPieceAllegiance(), piece.getPieceType(), tile);
+        if (piece.getPieceType() == Piece.PieceType.PAWN) {
+            this.pawnKey ^= ZobristUtils.pieceKey(piece.getPieceAllegiance(), Piece.PieceType.PAWN, tile);
+        }
+        this.midgameScore -= PieceSquareTables.midgame(piece.getPieceAllegiance(), piece.getPieceType(), tile);
+        this.endgameScore -= PieceSquareTables.endgame(piece.getPieceAllegiance(), piece.getPieceType(), tile);
+        this.gamePhase -= PieceSquareTables.phase(piece.getPieceType());
+        if (this.listener != null) {
+            this.listener.pieceRemoved(tile, piece);
+        }
+    }
+
+    private void allocateUndoStack(final int capacity) {
+        if (this.undoFrom == null) {
+            this.undoFrom = new int[capacity];
+            this.undoTo = new int[capacity];
+            this.undoMovedPiece = new Piece[capacity];
+            this.undoCapturedPiece = new Piece[capacity];
+            this.undoCapturedTile = new int[capacity];
+            this.undoCastleRook = new Piece[capacity];
+            this.undoCastleRookDestination = new int[capacity];
+            this.undoCastlingRights = new int[capacity];
+            this.undoEnPassantTile = new int[capacity];
+            this.undoZobristKey = new long[capacity];
+        } else {
+            this.undoFrom = Arrays.copyOf(this.undoFrom, capacity);
+            this.undoTo = Arrays.copyOf(this.undoTo, capacity);
+            this.undoMovedPiece = Arrays.copyOf(this.undoMovedPiece, capacity);
+            this.undoCapturedPiece = Arrays.copyOf(this.undoCapturedPiece, capacity);
+            this.undoCapturedTile = Arrays.copyOf(this.undoCapturedTile, capacity);
+            this.undoCastleRook = Arrays.copyOf(this.undoCastleRook, capacity);
+            this.undoCastleRookDestination = Arrays.copyOf(this.undoCastleRookDestination, capacity);
+            this.undoCastlingRights = Arrays.copyOf(this.undoCastlingRights, capacity);
+            this.undoEnPassantTile = Arrays.copyOf(this.undoEnPassantTile, capacity);
+            this.undoZobristKey = Arrays.copyOf(this.undoZobristKey, capacity);
+        }
+    }
+
+    private static Piece movedPiece(final Alliance alliance,
+                                    final Piece.PieceType pieceType,
+                                    final int tile) {
+        return MOVED_PIECES[BitBoardUtils.pieceIndex(alliance, pieceType)][tile];
+    }
+
+    private static Piece[][] initMovedPieces() {
+        final Piece[][] pieces = new Piece[BitBoardUtils.NUM_PIECE_BITBOARDS][BoardUtils.NUM_TILES];
+        for (final Alliance alliance : Alliance.values()) {
+            for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                pieces[BitBoardUtils.pieceIndex(alliance, Piece.PieceType.PAWN)][tile] = PieceUtils.INSTANCE.getPawn(alliance, tile, true);
+                pieces[BitBoardUtils.pieceIndex(alliance, Piece.PieceType.KNIGHT)][tile] = PieceUtils.INSTANCE.getKnight(alliance, tile, true);
+                pieces[BitBoardUtils.pieceIndex(alliance, Piece.PieceType.BISHOP)][tile] = PieceUtils.INSTANCE.getBishop(alliance, tile, true);
+                pieces[BitBoardUtils.pieceIndex(alliance, Piece.PieceType.ROOK)][tile] = PieceUtils.INSTANCE.getRook(alliance, tile, true);
+                pieces[BitBoardUtils.pieceIndex(alliance, Piece.PieceType.QUEEN)][tile] = PieceUtils.INSTANCE.getQueen(alliance, tile, true);
+                pieces[BitBoardUtils.pieceIndex(alliance, Piece.PieceType.KING)][tile] = PieceUtils.INSTANCE.getKing(alliance, tile, false, true);
+            }
+        }
+        return pieces;
+    }
+
+    private static King[][] initCastledKings() {
+        final King[][] kings = new King[Alliance.values().length][BoardUtils.NUM_TILES];
+        for (final Alliance alliance : Alliance.values()) {
+            for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                kings[alliance.ordinal()][tile] = PieceUtils.INSTANCE.getKing(alliance, tile, true, true);
+            }
+        }
+        return kings;
+    }
+
+    private static int[] initCastlingRightsMasks() {
+        final int[] masks = new int[BoardUtils.NUM_TILES];
+        Arrays.fill(masks, BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.WHITE_QUEEN_SIDE_CASTLE |
+                           BoardUtils.BLACK_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE);
+        masks[60] &= ~(BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.WHITE_QUEEN_SIDE_CASTLE);
+        masks[63] &= ~BoardUtils.WHITE_KING_SIDE_CASTLE;
+        masks[56] &= ~BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+        masks[4] &= ~(BoardUtils.BLACK_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE);
+        masks[7] &= ~BoardUtils.BLACK_KING_SIDE_CASTLE;
+        masks[0] &= ~BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        return masks;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = this.boardPieces[i];
+            final String tileText = piece == null ? "-" :
+                    piece.getPieceAllegiance().isBlack() ? piece.toString().toLowerCase() : piece.toString();
+            builder.append(String.format("%3s", tileText));
+            if ((i + 1) % 8 == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
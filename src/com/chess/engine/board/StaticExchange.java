@@ -0,0 +1,153 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Move.PawnEnPassantAttack;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Static exchange evaluation: the material a side gains by capturing on a tile and letting both sides keep
+ * recapturing there with their least valuable attacker, each side free to stop when continuing would lose more.
+ *
+ * Attackers are recomputed against the occupancy left after every capture, so sliders lined up behind a capturing
+ * piece (x-rays) join the exchange. A king only recaptures when the other side has no attacker left. Promotions
+ * during the exchange are not counted.
+ */
+public enum StaticExchange {
+
+    INSTANCE;
+
+    /**
+     * The length of the scratch array the search passes to {@link #evaluate(SearchBoard, int, int[])}.
+     */
+    public static final int MAX_EXCHANGE = 32;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    /**
+     * The material the mover gains by playing the capture move, or 0 for a non-capture.
+     */
+    public static int evaluate(final Board board,
+                               final Move move) {
+        if (!move.isAttack()) {
+            return 0;
+        }
+        final Piece attackedPiece = move.getAttackedPiece();
+        long occupancy = board.getOccupancy();
+        if (move instanceof PawnEnPassantAttack) {
+            occupancy &= ~BitBoardUtils.bit(attackedPiece.getPiecePosition());
+        }
+        return exchange(board.getPieceBitboards(), occupancy, move.getCurrentCoordinate(),
+                move.getDestinationCoordinate(), move.getMovedPiece().getPieceType(),
+                attackedPiece.getPieceValue(), move.getMovedPiece().getPieceAllegiance(), new int[MAX_EXCHANGE]);
+    }
+
+    /**
+     * The material the side to move gains by playing the capture move, in {@link MoveEncoding} form, or 0 for
+     * a non-capture.
+     */
+    public static int evaluate(final SearchBoard board,
+                               final int move) {
+        return evaluate(board, move, new int[MAX_EXCHANGE]);
+    }
+
+    /**
+     * As {@link #evaluate(SearchBoard, int)}, keeping the gains of the exchange in gain, an array of at least
+     * {@link #MAX_EXCHANGE} entries that the caller reuses, so that the search allocates nothing per node.
+     */
+    public static int evaluate(final SearchBoard board,
+                               final int move,
+                               final int[] gain) {
+        final PieceType capturedType = MoveEncoding.capturedPieceType(move);
+        if (capturedType == null) {
+            return 0;
+        }
+        final Alliance mover = board.getSideToMove();
+        final int to = MoveEncoding.to(move);
+        long occupancy = board.getOccupancy();
+        if (MoveEncoding.kind(move) == MoveEncoding.EN_PASSANT) {
+            occupancy &= ~BitBoardUtils.bit(to - BoardUtils.NUM_TILES_PER_ROW * mover.getDirection());
+        }
+        return exchange(board.getPieceBitboards(), occupancy, MoveEncoding.from(move), to,
+                MoveEncoding.movedPieceType(move), capturedType.getPieceValue(), mover, gain);
+    }
+
+    /**
+     * Whether the opponent of the piece on tile wins material by starting an exchange on it with their least
+     * valuable attacker.
+     */
+    public static boolean isHanging(final Board board,
+                                    final int tile) {
+        final Piece piece = board.getPiece(tile);
+        if (piece == null || piece.getPieceType() == PieceType.KING) {
+            return false;
+        }
+        final Alliance attacker = piece.getPieceAllegiance().opposite();
+        final long[] pieceBitboards = board.getPieceBitboards();
+        final long occupancy = board.getOccupancy();
+        final long attackers = BitBoardUtils.attackersOf(tile, attacker, pieceBitboards, occupancy) & occupancy;
+        for (final PieceType type : PIECE_TYPES) {
+            final long candidates = attackers & pieceBitboards[BitBoardUtils.pieceIndex(attacker, type)];
+            if (candidates != BitBoardUtils.EMPTY) {
+                final int from = Long.numberOfTrailingZeros(candidates);
+                if (type == PieceType.KING && isDefended(pieceBitboards, occupancy & ~BitBoardUtils.bit(from), tile,
+                        piece.getPieceAllegiance())) {
+                    return false;
+                }
+                return exchange(pieceBitboards, occupancy, from, tile, type, piece.getPieceValue(), attacker,
+                        new int[MAX_EXCHANGE]) > 0;
+            }
+        }
+        return false;
+    }
+
+    private static int exchange(final long[] pieceBitboards,
+                                long occupancy,
+                                final int from,
+                                final int to,
+                                final PieceType movedType,
+                                final int capturedValue,
+                                final Alliance mover,
+                                final int[] gain) {
+        gain[0] = capturedValue;
+        int depth = 0;
+        int victimValue = movedType.getPieceValue();
+        occupancy &= ~BitBoardUtils.bit(from);
+        Alliance side = mover.opposite();
+        while (depth < MAX_EXCHANGE - 1) {
+            final long attackers = BitBoardUtils.attackersOf(to, side, pieceBitboards, occupancy) & occupancy;
+            if (attackers == BitBoardUtils.EMPTY) {
+                break;
+            }
+            PieceType attackerType = null;
+            long attacker = BitBoardUtils.EMPTY;
+            for (final PieceType type : PIECE_TYPES) {
+                final long candidates = attackers & pieceBitboards[BitBoardUtils.pieceIndex(side, type)];
+                if (candidates != BitBoardUtils.EMPTY) {
+                    attackerType = type;
+                    attacker = Long.lowestOneBit(candidates);
+                    break;
+                }
+            }
+            if (attackerType == PieceType.KING && isDefended(pieceBitboards, occupancy & ~attacker, to, side.opposite())) {
+                break;
+            }
+            depth++;
+            gain[depth] = victimValue - gain[depth - 1];
+            victimValue = attackerType.getPieceValue();
+            occupancy &= ~attacker;
+            side = side.opposite();
+        }
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    private static boolean isDefended(final long[] pieceBitboards,
+                                      final long occupancy,
+                                      final int tile,
+                                      final Alliance defender) {
+        return (BitBoardUtils.attackersOf(tile, defender, pieceBitboards, occupancy) & occupancy) != BitBoardUtils.EMPTY;
+    }
+}
@@ -0,0 +1,102 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys. A position key is the XOR of one random key per piece on its tile, one for black to move, one for
+ * the castling rights mask and one for the en passant file when an en passant capture is actually available.
+ * The keys come from a fixed seed, so they are identical across runs.
+ */
+public enum ZobristUtils {
+
+    INSTANCE;
+
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+    private static final long[] PIECE_KEYS = new long[BitBoardUtils.NUM_PIECE_BITBOARDS * BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        for (int i = 1; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    public static long pieceKey(final int pieceIndex,
+                                final int tile) {
+        return PIECE_KEYS[pieceIndex * BoardUtils.NUM_TILES + tile];
+    }
+
+    public static long pieceKey(final Alliance alliance,
+                                final PieceType pieceType,
+                                final int tile) {
+        return pieceKey(BitBoardUtils.pieceIndex(alliance, pieceType), tile);
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece.getPieceAllegiance(), piece.getPieceType(), piece.getPiecePosition());
+    }
+
+    public static long sideToMoveKey(final Alliance sideToMove) {
+        return sideToMove.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * The en passant key for enPassantTile, or 0 when no pawn of sideToMove can capture onto it. Positions that
+     * differ only by an unusable en passant tile are the same position and share a key.
+     */
+    public static long enPassantKey(final int enPassantTile,
+                                    final Alliance sideToMove,
+                                    final long[] pieceBitboards) {
+        if (enPassantTile < 0 ||
+            (BitBoardUtils.pawnAttacks(sideToMove.opposite(), enPassantTile) &
+             pieceBitboards[BitBoardUtils.pieceIndex(sideToMove, PieceType.PAWN)]) == BitBoardUtils.EMPTY) {
+            return 0L;
+        }
+        return EN_PASSANT_KEYS[enPassantTile & (BoardUtils.NUM_TILES_PER_ROW - 1)];
+    }
+
+    /**
+     * The XOR of the keys of every piece on the given bitboards.
+     */
+    public static long calculatePieceKey(final long[] pieceBitboards) {
+        long key = 0L;
+        for (int pieceIndex = 0; pieceIndex < pieceBitboards.length; pieceIndex++) {
+            for (long pieces = pieceBitboards[pieceIndex]; pieces != BitBoardUtils.EMPTY; pieces &= pieces - 1) {
+                key ^= pieceKey(pieceIndex, Long.numberOfTrailingZeros(pieces));
+            }
+        }
+        return key;
+    }
+
+    /**
+     * The XOR of the keys of the pawns on the given bitboards, identifying the pawn structure alone.
+     */
+    public static long calculatePawnKey(final long[] pieceBitboards) {
+        long key = 0L;
+        for (final Alliance alliance : Alliance.values()) {
+            final int pieceIndex = BitBoardUtils.pieceIndex(alliance, PieceType.PAWN);
+            for (long pawns = pieceBitboards[pieceIndex]; pawns != BitBoardUtils.EMPTY; pawns &= pawns - 1) {
+                key ^= pieceKey(pieceIndex, Long.numberOfTrailingZeros(pawns));
+            }
+        }
+        return key;
+    }
+}
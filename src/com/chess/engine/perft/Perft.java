@@ -0,0 +1,86 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveBuffer;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree below a position. Comparing the counts with published reference
+ * values verifies move generation; timing them measures its throughput.
+ */
+public final class Perft {
+
+    private Perft() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    public static long perft(final Board board,
+                             final int depth) {
+        if (depth == 0) {
+            return 1L;
+        }
+        if (depth == 1) {
+            return board.currentPlayer().getLegalMoves().size();
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += perft(transition.getToBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Perft split by root move, in generation order. The values sum to {@link #perft(Board, int)}.
+     */
+    public static Map<Move, Long> divide(final Board board,
+                                         final int depth) {
+        final Map<Move, Long> divide = new LinkedHashMap<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                divide.put(move, perft(transition.getToBoard(), depth - 1));
+            }
+        }
+        return Collections.unmodifiableMap(divide);
+    }
+
+    /**
+     * Perft over a {@link SearchBoard} with make/unmake and one {@link MoveBuffer} per ply, the allocation-free
+     * path used by search.
+     */
+    public static long perft(final SearchBoard board,
+                             final int depth) {
+        final MoveBuffer[] buffers = new MoveBuffer[Math.max(depth, 1)];
+        for (int ply = 0; ply < buffers.length; ply++) {
+            buffers[ply] = new MoveBuffer();
+        }
+        return perft(board, depth, buffers);
+    }
+
+    private static long perft(final SearchBoard board,
+                              final int depth,
+                              final MoveBuffer[] buffers) {
+        if (depth == 0) {
+            return 1L;
+        }
+        final MoveBuffer moves = buffers[depth - 1];
+        board.generateMoves(moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (board.makeMove(moves.get(i))) {
+                nodes += depth == 1 ? 1L : perft(board, depth - 1, buffers);
+            }
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,90 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.board.SearchBoard;
+import com.chess.pgn.FenUtilities;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Command line front end for {@link Perft}.
+ *
+ * <pre>
+ *   PerftRunner [maxDepth] [search]   run every reference position up to maxDepth (default 4), on Board or,
+ *                                     with "search", on SearchBoard with move buffers
+ *   PerftRunner divide depth fen...   print the node count below each root move of fen
+ * </pre>
+ */
+public final class PerftRunner {
+
+    private static final int DEFAULT_MAX_DEPTH = 4;
+
+    private PerftRunner() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    public static void main(final String[] args) {
+        if (args.length > 0 && args[0].equals("divide")) {
+            if (args.length < 3) {
+                System.err.println("usage: PerftRunner divide <depth> <fen>");
+                System.exit(2);
+            }
+            divide(Integer.parseInt(args[1]), String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+            return;
+        }
+        final int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MAX_DEPTH;
+        final boolean searchBoard = args.length > 1 && args[1].equals("search");
+        if (!runReferenceSuite(maxDepth, searchBoard)) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean runReferenceSuite(final int maxDepth,
+                                             final boolean searchBoard) {
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (final PerftPosition position : PerftPosition.values()) {
+            final Board board = FenUtilities.createGameFromFEN(position.getFen());
+            final int depth = Math.min(maxDepth, position.getMaxDepth());
+            final long start = System.nanoTime();
+            final long nodes = searchBoard ? Perft.perft(new SearchBoard(board), depth) : Perft.perft(board, depth);
+            final long elapsed = System.nanoTime() - start;
+            final boolean passed = nodes == position.getExpectedNodes(depth);
+            allPassed &= passed;
+            totalNodes += nodes;
+            totalNanos += elapsed;
+            System.out.printf("%-12s depth %d  nodes %,14d  expected %,14d  %-4s  %8.3f s  %,12d nps%n",
+                    position, depth, nodes, position.getExpectedNodes(depth), passed ? "OK" : "FAIL",
+                    elapsed / 1e9, nodesPerSecond(nodes, elapsed));
+        }
+        System.out.printf("%-12s          nodes %,14d                           %8.3f s  %,12d nps%n",
+                "TOTAL", totalNodes, totalNanos / 1e9, nodesPerSecond(totalNodes, totalNanos));
+        return allPassed;
+    }
+
+    private static void divide(final int depth,
+                               final String fen) {
+        final Board board = FenUtilities.createGameFromFEN(fen);
+        final long start = System.nanoTime();
+        final Map<Move, Long> divide = Perft.divide(board, depth);
+        final long elapsed = System.nanoTime() - start;
+        long nodes = 0;
+        for (final Map.Entry<Move, Long> entry : divide.entrySet()) {
+            System.out.println(MoveUtils.toLongAlgebraicNotation(entry.getKey()) + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Moves: " + divide.size());
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time:  %.3f s (%,d nps)%n", elapsed / 1e9, nodesPerSecond(nodes, elapsed));
+    }
+
+    private static long nodesPerSecond(final long nodes,
+                                       final long nanos) {
+        return nanos == 0 ? 0 : (long) (nodes * 1e9 / nanos);
+    }
+}
@@ -1,10 +1,16 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MajorAttackMove;
+import com.chess.engine.board.Move.MajorMove;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public abstract class Piece {
 
@@ -49,6 +55,22 @@ public abstract class Piece {
 
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    /**
+     * Quiet moves and captures to every tile of attacks not occupied by this piece's own alliance.
+     */
+    Collection<Move> calculateMajorMoves(final Board board,
+                                         final long attacks) {
+        final long destinations = attacks & ~board.getOccupancy(this.pieceAlliance);
+        final List<Move> legalMoves = new ArrayList<>(Long.bitCount(destinations));
+        for (long remaining = destinations; remaining != BitBoardUtils.EMPTY; remaining &= remaining - 1) {
+            final int destination = Long.numberOfTrailingZeros(remaining);
+            final Piece pieceAtDestination = board.getPiece(destination);
+            legalMoves.add(pieceAtDestination == null ? new MajorMove(board, this, destination) :
+                    new MajorAttackMove(board, this, destination, pieceAtDestination));
+        }
+        return Collections.unmodifiableList(legalMoves);
+    }
+
     @Override
     public boolean equals(final Object other) {
         if (this == other) {
@@ -68,8 +90,8 @@ public abstract class Piece {
     }
 
     private int computeHashCode() {
-        int result = this.pieceType.hashCode();
-        result = 31 * result + this.pieceAlliance.hashCode();
+        int result = this.pieceType.ordinal();
+        result = 31 * result + this.pieceAlliance.ordinal();
         result = 31 * result + this.piecePosition;
         result = 31 * result + (this.isFirstMove ? 1 : 0);
         return result;
@@ -20,15 +20,12 @@ import static com.chess.engine.pieces.Piece.PieceType.ROOK;
 public final class BlackPlayer extends Player {
 
     public BlackPlayer(final Board board,
-                       final King playerKing,
-                       final Collection<Move> whiteStandardLegals,
-                       final Collection<Move> blackStandardLegals) {
-        super(board, playerKing, blackStandardLegals, whiteStandardLegals);
+                       final King playerKing) {
+        super(board, playerKing);
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles() {
 
         if (!hasCastlingRights()) {
             return Collections.emptyList();
@@ -37,11 +34,11 @@ public final class BlackPlayer extends Player {
         final List<Move> kingCastles = new ArrayList<>();
 
         if (this.playerKing.isFirstMove() && this.playerKing.getPiecePosition() == 4 && !this.isInCheck) {
-            if (this.board.getPiece(5) == null && this.board.getPiece(6) == null) {
+            if (this.playerKing.isKingSideCastleCapable() && this.board.getPiece(5) == null && this.board.getPiece(6) == null) {
                 final Piece kingSideRook = this.board.getPiece(7);
                 if (kingSideRook != null && kingSideRook.isFirstMove() &&
-                        BoardUtils.calculateAttacksOnTile(5, opponentLegals).isEmpty() &&
-                        BoardUtils.calculateAttacksOnTile(6, opponentLegals).isEmpty() &&
+                        !this.board.isTileAttacked(5, Alliance.WHITE) &&
+                        !this.board.isTileAttacked(6, Alliance.WHITE) &&
                         kingSideRook.getPieceType() == ROOK) {
                     if (!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 12)) {
                         kingCastles.add(
@@ -50,12 +47,12 @@ public final class BlackPlayer extends Player {
                     }
                 }
             }
-            if (this.board.getPiece(1) == null && this.board.getPiece(2) == null &&
+            if (this.playerKing.isQueenSideCastleCapable() && this.board.getPiece(1) == null && this.board.getPiece(2) == null &&
                     this.board.getPiece(3) == null) {
                 final Piece queenSideRook = this.board.getPiece(0);
                 if (queenSideRook != null && queenSideRook.isFirstMove() &&
-                        BoardUtils.calculateAttacksOnTile(2, opponentLegals).isEmpty() &&
-                        BoardUtils.calculateAttacksOnTile(3, opponentLegals).isEmpty() &&
+                        !this.board.isTileAttacked(2, Alliance.WHITE) &&
+                        !this.board.isTileAttacked(3, Alliance.WHITE) &&
                         queenSideRook.getPieceType() == ROOK) {
                     if (!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 12)) {
                         kingCastles.add(
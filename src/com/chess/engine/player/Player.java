@@ -2,32 +2,33 @@ package com.chess.engine.player;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LegalMoveFilter;
+import com.chess.engine.board.LegalMoveIndex;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MoveStatus;
 import com.chess.engine.board.MoveTransition;
 import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Piece;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 
 public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move> legalMoves;
     protected final boolean isInCheck;
+    private volatile Collection<Move> legalMoves;
+    private volatile LegalMoveIndex legalMoveIndex;
 
     Player(final Board board,
-           final King playerKing,
-           final Collection<Move> playerLegals,
-           final Collection<Move> opponentLegals) {
+           final King playerKing) {
         this.board = board;
         this.playerKing = playerKing;
-        this.isInCheck = !BoardUtils.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentLegals).isEmpty();
-        playerLegals.addAll(calculateKingCastles(playerLegals, opponentLegals));
-        this.legalMoves = Collections.unmodifiableCollection(playerLegals);
+        this.isInCheck = board.isKingInCheck(playerKing.getPieceAllegiance());
     }
 
     public Board getBoard() {
@@ -39,11 +40,11 @@ public abstract class Player {
     }
 
     public boolean isInCheckMate() {
-       return this.isInCheck && this.isTrapped();
+        return this.isInCheck && getLegalMoves().isEmpty();
     }
 
     public boolean isInStaleMate() {
-        return !this.isInCheck && this.isTrapped();
+        return !this.isInCheck && getLegalMoves().isEmpty();
     }
 
     public boolean isKingSideCastleCapable() {
@@ -54,27 +55,64 @@ public abstract class Player {
         return this.playerKing.isQueenSideCastleCapable();
     }
 
-    private boolean isTrapped() {
-        for (final Move move : this.legalMoves) {
-            if (makeMove(move).getMoveStatus().isDone()) {
-                return false;
-            }
+    /**
+     * The exactly legal moves of this player.
+     */
+    public Collection<Move> getLegalMoves() {
+        Collection<Move> moves = this.legalMoves;
+        if (moves == null) {
+            moves = calculateLegalMoves();
+            this.legalMoves = moves;
         }
-        return true;
+        return moves;
     }
-    public Collection<Move> getLegalMoves() {
-        return this.legalMoves;
+
+    /**
+     * The legal move from currentCoordinate to destinationCoordinate, or the null move.
+     */
+    public Move getLegalMove(final int currentCoordinate,
+                             final int destinationCoordinate) {
+        return getLegalMoveIndex().get(currentCoordinate, destinationCoordinate);
+    }
+
+    public Move getLegalMove(final int currentCoordinate,
+                             final int destinationCoordinate,
+                             final Piece.PieceType promotionType) {
+        return getLegalMoveIndex().get(currentCoordinate, destinationCoordinate, promotionType);
+    }
+
+    private LegalMoveIndex getLegalMoveIndex() {
+        LegalMoveIndex index = this.legalMoveIndex;
+        if (index == null) {
+            index = new LegalMoveIndex(getLegalMoves());
+            this.legalMoveIndex = index;
+        }
+        return index;
+    }
+
+    private Collection<Move> calculateLegalMoves() {
+        final LegalMoveFilter filter = new LegalMoveFilter(this.board, getAlliance());
+        final List<Move> moves = new ArrayList<>();
+        for (final int index : getActivePieces()) {
+            final Piece piece = this.board.getPiece(index);
+            if (!filter.canMove(piece)) {
+                continue;
+            }
+            for (final Move move : piece.calculateLegalMoves(this.board)) {
+                if (filter.isLegal(move)) {
+                    moves.add(move);
+                }
+            }
+        }
+        moves.addAll(calculateKingCastles());
+        return Collections.unmodifiableList(moves);
     }
 
     public MoveTransition makeMove(final Move move) {
-        if (!this.legalMoves.contains(move)) {
+        if (!getLegalMoveIndex().contains(move)) {
             return new MoveTransition(this.board, this.board, move, MoveStatus.ILLEGAL_MOVE);
-        } else {
-            final Board transitionedBoard = move.execute();
-            return transitionedBoard.currentPlayer().getOpponent().isInCheck() ?
-                new MoveTransition(this.board, this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK) :
-                new MoveTransition(this.board, transitionedBoard, move, MoveStatus.DONE);
         }
+        return new MoveTransition(this.board, move.execute(), move, MoveStatus.DONE);
     }
 
     public MoveTransition unMakeMove(final Move move) {
@@ -84,8 +122,7 @@ public abstract class Player {
     public abstract int[] getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals,
-                                                             Collection<Move> opponentLegals);
+    protected abstract Collection<Move> calculateKingCastles();
     public boolean hasCastlingRights() {
         return !this.isInCheck && !this.playerKing.isCastled() &&
                 (this.playerKing.isKingSideCastleCapable() || this.playerKing.isQueenSideCastleCapable());
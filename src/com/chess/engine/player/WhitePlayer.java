@@ -20,15 +20,12 @@ import static com.chess.engine.pieces.Piece.PieceType.ROOK;
 public final class WhitePlayer extends Player {
 
     public WhitePlayer(final Board board,
-                       final King playerKing,
-                       final Collection<Move> whiteStandardLegals,
-                       final Collection<Move> blackStandardLegals) {
-        super(board, playerKing, whiteStandardLegals, blackStandardLegals);
+                       final King playerKing) {
+        super(board, playerKing);
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles() {
 
         if(!hasCastlingRights()) {
             return Collections.emptyList();
@@ -37,11 +34,11 @@ public final class WhitePlayer extends Player {
         final List<Move> kingCastles = new ArrayList<>();
 
         if(this.playerKing.isFirstMove() && this.playerKing.getPiecePosition() == 60 && !this.isInCheck()) {
-            if(this.board.getPiece(61) == null && this.board.getPiece(62) == null) {
+            if(this.playerKing.isKingSideCastleCapable() && this.board.getPiece(61) == null && this.board.getPiece(62) == null) {
                 final Piece kingSideRook = this.board.getPiece(63);
                 if(kingSideRook != null && kingSideRook.isFirstMove()) {
-                    if(BoardUtils.calculateAttacksOnTile(61, opponentLegals).isEmpty() &&
-                       BoardUtils.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
+                    if(!this.board.isTileAttacked(61, Alliance.BLACK) &&
+                       !this.board.isTileAttacked(62, Alliance.BLACK) &&
                        kingSideRook.getPieceType() == ROOK) {
                         if(!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 52)) {
                             kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62, (Rook) kingSideRook, 61));
@@ -49,12 +46,12 @@ public final class WhitePlayer extends Player {
                     }
                 }
             }
-            if(this.board.getPiece(59) == null && this.board.getPiece(58) == null &&
+            if(this.playerKing.isQueenSideCastleCapable() && this.board.getPiece(59) == null && this.board.getPiece(58) == null &&
                this.board.getPiece(57) == null) {
                 final Piece queenSideRook = this.board.getPiece(56);
                 if(queenSideRook != null && queenSideRook.isFirstMove()) {
-                    if(BoardUtils.calculateAttacksOnTile(58, opponentLegals).isEmpty() &&
-                       BoardUtils.calculateAttacksOnTile(59, opponentLegals).isEmpty() && queenSideRook.getPieceType() == ROOK) {
+                    if(!this.board.isTileAttacked(58, Alliance.BLACK) &&
+                       !this.board.isTileAttacked(59, Alliance.BLACK) && queenSideRook.getPieceType() == ROOK) {
                         if(!BoardUtils.isKingPawnTrap(this.board, this.playerKing, 52)) {
                             kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 58, (Rook) queenSideRook, 59));
                         }
@@ -0,0 +1,25 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchBoard;
+
+public interface BoardEvaluator {
+
+    /**
+     * The static score of the position in centipawns, positive when it favours the side to move. Called at every
+     * leaf of the search, possibly from several threads at once.
+     */
+    int evaluate(SearchBoard board);
+
+    /**
+     * Called once for each search thread's board before searching it, so that an evaluator can follow its moves
+     * incrementally through a {@link SearchBoard.Listener}.
+     */
+    default void attach(final SearchBoard board) {
+    }
+
+    default int evaluate(final Board board) {
+        return evaluate(new SearchBoard(board));
+    }
+
+}
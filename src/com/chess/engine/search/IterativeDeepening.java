@@ -0,0 +1,219 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Iterative-deepening alpha-beta search bounded by {@link SearchLimits}.
+ *
+ * With more than one thread the search is Lazy SMP: every thread searches the same root on its own
+ * {@link SearchBoard}, sharing only the transposition table, the stop flag and the node count, and helper threads
+ * skip some depths so they run ahead of the main thread. The helpers contribute through the table; the move played is the
+ * main thread's unless a helper completed a deeper iteration.
+ */
+public final class IterativeDeepening implements MoveStrategy {
+
+    private final SearchLimits limits;
+    private final TranspositionTable transpositionTable;
+    private final int threadCount;
+    private final BoardEvaluator evaluator;
+    private final AtomicBoolean stopFlag;
+    private Listener listener;
+    private long[] gameHistory;
+    private long[] threadNodes;
+    private long nodesSearched;
+    private int completedDepth;
+    private int score;
+
+    /**
+     * Told about every iteration the main thread completes, on the searching thread, while the search goes on.
+     */
+    public interface Listener {
+
+        void iterationCompleted(int depth, int score, long nodes, long elapsedMillis, int[] principalVariation);
+
+    }
+
+    public IterativeDeepening(final SearchLimits limits) {
+        this(limits, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * Searches with a caller-owned table, so results carry over between the moves of a game.
+     */
+    public IterativeDeepening(final SearchLimits limits,
+                              final TranspositionTable transpositionTable) {
+        this(limits, transpositionTable, 1);
+    }
+
+    public IterativeDeepening(final SearchLimits limits,
+                              final TranspositionTable transpositionTable,
+                              final int threadCount) {
+        this(limits, transpositionTable, threadCount, new TaperedEvaluator());
+    }
+
+    public IterativeDeepening(final SearchLimits limits,
+                              final TranspositionTable transpositionTable,
+                              final int threadCount,
+                              final BoardEvaluator evaluator) {
+        if (threadCount < 1) {
+            throw new RuntimeException("Thread count must be at least 1: " + threadCount);
+        }
+        this.limits = limits;
+        this.transpositionTable = transpositionTable;
+        this.threadCount = threadCount;
+        this.evaluator = evaluator;
+        this.stopFlag = new AtomicBoolean();
+        this.gameHistory = new long[0];
+        this.threadNodes = new long[0];
+    }
+
+    public void setListener(final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the Zobrist keys of the positions played before the searched one, oldest first, back to the last capture
+     * or pawn move, so that the search scores a return to any of them as a draw.
+     */
+    public void setGameHistory(final long[] gameHistory) {
+        this.gameHistory = gameHistory.clone();
+    }
+
+    /**
+     * Clears the stop flag so that this search can be executed again. A search is created ready to run, and a
+     * {@link #stop()} that arrives before {@link #execute(Board)} starts makes it return at once, so that a stop
+     * racing the start of the search is never lost.
+     */
+    public void reset() {
+        this.stopFlag.set(false);
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        this.transpositionTable.newSearch();
+        final long startNanos = System.nanoTime();
+        final SearchWorker[] workers = new SearchWorker[this.threadCount];
+        final AtomicLong sharedNodes = new AtomicLong();
+        for (int i = 0; i < workers.length; i++) {
+            final SearchBoard searchBoard = new SearchBoard(board);
+            searchBoard.setGameHistory(this.gameHistory);
+            workers[i] = new SearchWorker(searchBoard, this.limits, this.transpositionTable,
+                    this.evaluator, this.stopFlag, sharedNodes, i);
+        }
+        final Listener iterationListener = this.listener;
+        if (iterationListener != null) {
+            workers[0].setIterationListener(() -> reportIteration(iterationListener, workers, startNanos));
+        }
+        final Thread[] helpers = new Thread[workers.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Thread(workers[i + 1]::iterate, "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        workers[0].iterate();
+        this.stopFlag.set(true);
+        for (final Thread helper : helpers) {
+            joinUninterruptibly(helper);
+        }
+
+        SearchWorker best = workers[0];
+        this.threadNodes = new long[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            this.threadNodes[i] = workers[i].getNodes();
+            if (workers[i].getCompletedDepth() > best.getCompletedDepth() &&
+                workers[i].getBestMove() != MoveEncoding.NONE) {
+                best = workers[i];
+            }
+        }
+        this.nodesSearched = Arrays.stream(this.threadNodes).sum();
+        this.completedDepth = best.getCompletedDepth();
+        this.score = best.getBestScore();
+        return MoveEncoding.decode(board, best.getBestMove());
+    }
+
+    /**
+     * Reports the main worker's last iteration. Helper node counts are read while they run, so the total is
+     * approximate.
+     */
+    private static void reportIteration(final Listener listener,
+                                        final SearchWorker[] workers,
+                                        final long startNanos) {
+        long nodes = 0;
+        for (final SearchWorker worker : workers) {
+            nodes += worker.getNodes();
+        }
+        final SearchWorker main = workers[0];
+        listener.iterationCompleted(main.getCompletedDepth(), main.getBestScore(), nodes,
+                (System.nanoTime() - startNanos) / 1_000_000L, main.getPrincipalVariation());
+    }
+
+    /**
+     * Whether score, as reported by a search, announces a forced mate.
+     */
+    public static boolean isMateScore(final int score) {
+        return SearchWorker.isMateScore(score);
+    }
+
+    /**
+     * The number of moves to the mate announced by score, negative when the side to move is getting mated.
+     */
+    public static int movesToMate(final int score) {
+        return score > 0 ? (SearchWorker.MATE - score + 1) / 2 : -(SearchWorker.MATE + score) / 2;
+    }
+
+    private static void joinUninterruptibly(final Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        this.stopFlag.set(true);
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    /**
+     * Nodes searched by each thread in the last search, main thread first.
+     */
+    public long[] getThreadNodes() {
+        return this.threadNodes.clone();
+    }
+
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    @Override
+    public String toString() {
+        return "IterativeDeepening(" + this.limits + ", threads " + this.threadCount + ", " + this.evaluator + ")";
+    }
+}
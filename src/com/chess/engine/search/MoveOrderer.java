@@ -0,0 +1,179 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveBuffer;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.StaticExchange;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Orders the moves of one search thread. Moves are scored once per node and then selected one at a time with
+ * {@link #pickNextMove}, so a node that cuts off early never pays for sorting the rest.
+ *
+ * The order is: the hash move, captures and promotions that do not lose material by MVV-LVA, the two killer
+ * moves of the ply, the countermove to the opponent's last move, the remaining quiet moves by butterfly
+ * history, and last the captures that lose material by static exchange.
+ */
+final class MoveOrderer {
+
+    static final int MAX_HISTORY = 1 << 14;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int GOOD_CAPTURE_SCORE = 1 << 28;
+    private static final int FIRST_KILLER_SCORE = GOOD_CAPTURE_SCORE - 1;
+    private static final int SECOND_KILLER_SCORE = GOOD_CAPTURE_SCORE - 2;
+    private static final int COUNTERMOVE_SCORE = GOOD_CAPTURE_SCORE - 3;
+    private static final int BAD_CAPTURE_SCORE = -(1 << 28);
+
+    private static final int KILLERS_PER_PLY = 2;
+    private static final int NUM_FROM_TO = BoardUtils.NUM_TILES * BoardUtils.NUM_TILES;
+
+    private final SearchBoard board;
+    private final int[][] killers;
+    private final int[][] history;
+    private final int[][] countermoves;
+    private final int[] exchangeGain;
+
+    MoveOrderer(final SearchBoard board) {
+        this.board = board;
+        this.killers = new int[SearchWorker.MAX_PLY][KILLERS_PER_PLY];
+        this.history = new int[Alliance.values().length][NUM_FROM_TO];
+        this.countermoves = new int[Alliance.values().length][NUM_FROM_TO];
+        this.exchangeGain = new int[StaticExchange.MAX_EXCHANGE];
+    }
+
+    /**
+     * Scores every move of a full-width node; previousMove is the opponent's move that led here, or
+     * {@link MoveEncoding#NONE}.
+     */
+    void scoreMoves(final MoveBuffer moves,
+                    final int[] scores,
+                    final int hashMove,
+                    final int ply,
+                    final int previousMove) {
+        final int side = this.board.getSideToMove().ordinal();
+        final int[] plyKillers = this.killers[ply];
+        final int countermove = previousMove == MoveEncoding.NONE ?
+                MoveEncoding.NONE : this.countermoves[side][fromTo(previousMove)];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (isTactical(move)) {
+                scores[i] = scoreTactical(move);
+            } else if (move == plyKillers[0]) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else if (move == countermove) {
+                scores[i] = COUNTERMOVE_SCORE;
+            } else {
+                scores[i] = this.history[side][fromTo(move)];
+            }
+        }
+    }
+
+    /**
+     * Scores the captures and promotions of a quiescence node.
+     */
+    void scoreCaptures(final MoveBuffer moves,
+                       final int[] scores) {
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = scoreTactical(moves.get(i));
+        }
+    }
+
+    /**
+     * Records that a quiet move caused a beta cutoff: it becomes the first killer of the ply and the countermove to
+     * previousMove, its history is raised, and the history of the quiet moves tried before it is lowered.
+     */
+    void recordCutoff(final int move,
+                      final int ply,
+                      final int depth,
+                      final int previousMove,
+                      final MoveBuffer moves,
+                      final int triedCount) {
+        if (isTactical(move)) {
+            return;
+        }
+        final int side = this.board.getSideToMove().ordinal();
+        final int[] plyKillers = this.killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        if (previousMove != MoveEncoding.NONE) {
+            this.countermoves[side][fromTo(previousMove)] = move;
+        }
+        final int bonus = Math.min(depth * depth, MAX_HISTORY / 16);
+        updateHistory(side, move, bonus);
+        for (int i = 0; i < triedCount; i++) {
+            final int tried = moves.get(i);
+            if (tried != move && !isTactical(tried)) {
+                updateHistory(side, tried, -bonus);
+            }
+        }
+    }
+
+    /**
+     * Moves the highest scored of the moves from index onwards to index and returns it.
+     */
+    static int pickNextMove(final MoveBuffer moves,
+                            final int[] scores,
+                            final int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(best, index);
+            final int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Whether a score given by this orderer is that of a capture losing material by static exchange.
+     */
+    static boolean isLosingCapture(final int score) {
+        return score < BAD_CAPTURE_SCORE;
+    }
+
+    private int scoreTactical(final int move) {
+        final PieceType capturedType = MoveEncoding.capturedPieceType(move);
+        final PieceType promotionType = MoveEncoding.promotionPieceType(move);
+        int score = promotionType == null ? 0 : promotionType.getPieceValue();
+        if (capturedType != null) {
+            final PieceType movedType = MoveEncoding.movedPieceType(move);
+            if (promotionType == null && movedType.getPieceValue() > capturedType.getPieceValue()) {
+                final int exchange = StaticExchange.evaluate(this.board, move, this.exchangeGain);
+                if (exchange < 0) {
+                    return BAD_CAPTURE_SCORE + exchange;
+                }
+            }
+            score += 10 * capturedType.getPieceValue() - movedType.getPieceValue();
+        }
+        return GOOD_CAPTURE_SCORE + score;
+    }
+
+    private void updateHistory(final int side,
+                               final int move,
+                               final int bonus) {
+        final int index = fromTo(move);
+        this.history[side][index] += bonus - this.history[side][index] * Math.abs(bonus) / MAX_HISTORY;
+    }
+
+    private static boolean isTactical(final int move) {
+        return MoveEncoding.isCapture(move) || MoveEncoding.isPromotion(move);
+    }
+
+    private static int fromTo(final int move) {
+        return MoveEncoding.from(move) * BoardUtils.NUM_TILES + MoveEncoding.to(move);
+    }
+}
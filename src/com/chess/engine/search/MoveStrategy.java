@@ -0,0 +1,22 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+public interface MoveStrategy {
+
+    /**
+     * Searches the position and returns the chosen move of the side to move, resolved against board, or
+     * {@link com.chess.engine.board.MoveUtils#NULL_MOVE} when it has no legal move.
+     */
+    Move execute(Board board);
+
+    /**
+     * Asks a running {@link #execute(Board)} to return its best move found so far as soon as possible; a search
+     * stopped before it starts returns as soon as it has a move.
+     */
+    void stop();
+
+    long getNodesSearched();
+
+}
@@ -0,0 +1,234 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * The hidden layer of a {@link NnueNetwork} for one board, kept up to date as moves are made and unmade on it. Each
+ * ply of the search has its own copy of both perspectives' accumulators: a move copies the current one and then
+ * adds and subtracts the weight rows of the pieces it puts and removes, and unmaking a move just drops back to the
+ * previous ply. A king move that changes its side's king bucket recomputes that perspective from scratch.
+ */
+final class NnueAccumulator implements SearchBoard.Listener {
+
+    private static final VectorSpecies<Short> UPDATE_SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> OUTPUT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> OUTPUT_INPUT_SPECIES = VectorSpecies.of(short.class,
+            VectorShape.forBitSize(OUTPUT_SPECIES.vectorBitSize() / 2));
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int PERSPECTIVES = Alliance.values().length;
+
+    private final NnueNetwork network;
+    private final SearchBoard board;
+    private final int hiddenSize;
+    private short[][] accumulators;
+    private int[][] kingBuckets;
+    private int depth;
+
+    NnueAccumulator(final NnueNetwork network,
+                    final SearchBoard board) {
+        this.network = network;
+        this.board = board;
+        this.hiddenSize = network.getHiddenSize();
+        this.accumulators = new short[INITIAL_CAPACITY][PERSPECTIVES * this.hiddenSize];
+        this.kingBuckets = new int[INITIAL_CAPACITY][PERSPECTIVES];
+        this.depth = 0;
+        for (final Alliance perspective : Alliance.values()) {
+            refresh(perspective);
+        }
+    }
+
+    NnueNetwork getNetwork() {
+        return this.network;
+    }
+
+    SearchBoard getBoard() {
+        return this.board;
+    }
+
+    @Override
+    public void moveStarted() {
+        if (this.depth + 1 == this.accumulators.length) {
+            grow();
+        }
+        System.arraycopy(this.accumulators[this.depth], 0, this.accumulators[this.depth + 1], 0,
+                PERSPECTIVES * this.hiddenSize);
+        this.kingBuckets[this.depth + 1][0] = this.kingBuckets[this.depth][0];
+        this.kingBuckets[this.depth + 1][1] = this.kingBuckets[this.depth][1];
+        this.depth++;
+    }
+
+    @Override
+    public void piecePut(final int tile,
+                         final Piece piece) {
+        if (piece.getPieceType() != PieceType.KING) {
+            updateFeature(tile, piece, true);
+        }
+    }
+
+    @Override
+    public void pieceRemoved(final int tile,
+                             final Piece piece) {
+        if (piece.getPieceType() != PieceType.KING) {
+            updateFeature(tile, piece, false);
+        }
+    }
+
+    @Override
+    public void moveFinished() {
+        for (final Alliance perspective : Alliance.values()) {
+            final int bucket = this.network.kingBucket(perspective, this.board.getKingPosition(perspective));
+            if (bucket != this.kingBuckets[this.depth][perspective.ordinal()]) {
+                refresh(perspective);
+            }
+        }
+    }
+
+    @Override
+    public void moveUndone() {
+        this.depth--;
+    }
+
+    /**
+     * The network's score of the board in centipawns, positive when it favours the side to move.
+     */
+    int evaluate() {
+        final short[] accumulator = this.accumulators[this.depth];
+        final short[] outputWeights = this.network.getOutputWeights();
+        final int us = this.board.getSideToMove().ordinal() * this.hiddenSize;
+        final int them = this.hiddenSize - us;
+        final int output = dot(accumulator, us, outputWeights, 0) +
+                           dot(accumulator, them, outputWeights, this.hiddenSize) +
+                           this.network.getOutputBias();
+        return output * NnueNetwork.OUTPUT_SCALE / (NnueNetwork.ACTIVATION_MAX * NnueNetwork.OUTPUT_WEIGHT_SCALE);
+    }
+
+    private void updateFeature(final int tile,
+                               final Piece piece,
+                               final boolean add) {
+        final short[] accumulator = this.accumulators[this.depth];
+        final short[] weights = this.network.getFeatureWeights();
+        for (final Alliance perspective : Alliance.values()) {
+            final int feature = NnueNetwork.featureIndex(perspective,
+                    this.kingBuckets[this.depth][perspective.ordinal()], piece.getPieceAllegiance(),
+                    piece.getPieceType(), tile);
+            final int offset = perspective.ordinal() * this.hiddenSize;
+            final int row = feature * this.hiddenSize;
+            if (add) {
+                addRow(accumulator, offset, weights, row);
+            } else {
+                subtractRow(accumulator, offset, weights, row);
+            }
+        }
+    }
+
+    private void refresh(final Alliance perspective) {
+        final short[] accumulator = this.accumulators[this.depth];
+        final short[] weights = this.network.getFeatureWeights();
+        final int bucket = this.network.kingBucket(perspective, this.board.getKingPosition(perspective));
+        final int offset = perspective.ordinal() * this.hiddenSize;
+        this.kingBuckets[this.depth][perspective.ordinal()] = bucket;
+        System.arraycopy(this.network.getFeatureBiases(), 0, accumulator, offset, this.hiddenSize);
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                if (pieceType == PieceType.KING) {
+                    continue;
+                }
+                long pieces = this.board.getPieceBitboard(alliance, pieceType);
+                while (pieces != 0) {
+                    final int tile = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    final int feature = NnueNetwork.featureIndex(perspective, bucket, alliance, pieceType, tile);
+                    addRow(accumulator, offset, weights, feature * this.hiddenSize);
+                }
+            }
+        }
+    }
+
+    private void addRow(final short[] accumulator,
+                        final int offset,
+                        final short[] weights,
+                        final int row) {
+        final int bound = UPDATE_SPECIES.loopBound(this.hiddenSize);
+        int i = 0;
+        for (; i < bound; i += UPDATE_SPECIES.length()) {
+            ShortVector.fromArray(UPDATE_SPECIES, accumulator, offset + i)
+                    .add(ShortVector.fromArray(UPDATE_SPECIES, weights, row + i))
+                    .intoArray(accumulator, offset + i);
+        }
+        for (; i < this.hiddenSize; i++) {
+            accumulator[offset + i] += weights[row + i];
+        }
+    }
+
+    private void subtractRow(final short[] accumulator,
+                             final int offset,
+                             final short[] weights,
+                             final int row) {
+        final int bound = UPDATE_SPECIES.loopBound(this.hiddenSize);
+        int i = 0;
+        for (; i < bound; i += UPDATE_SPECIES.length()) {
+            ShortVector.fromArray(UPDATE_SPECIES, accumulator, offset + i)
+                    .sub(ShortVector.fromArray(UPDATE_SPECIES, weights, row + i))
+                    .intoArray(accumulator, offset + i);
+        }
+        for (; i < this.hiddenSize; i++) {
+            accumulator[offset + i] -= weights[row + i];
+        }
+    }
+
+    /**
+     * The sum over one perspective's half of the clipped accumulator times the matching output weights, widened to
+     * int lanes so that the products cannot overflow.
+     */
+    private int dot(final short[] accumulator,
+                    final int offset,
+                    final short[] outputWeights,
+                    final int weightOffset) {
+        final int bound = OUTPUT_INPUT_SPECIES.loopBound(this.hiddenSize);
+        IntVector sum = IntVector.zero(OUTPUT_SPECIES);
+        int i = 0;
+        for (; i < bound; i += OUTPUT_INPUT_SPECIES.length()) {
+            final IntVector activation = (IntVector) ShortVector.fromArray(OUTPUT_INPUT_SPECIES, accumulator, offset + i)
+                    .max((short) 0)
+                    .min((short) NnueNetwork.ACTIVATION_MAX)
+                    .convertShape(VectorOperators.S2I, OUTPUT_SPECIES, 0);
+            final IntVector weight = (IntVector) ShortVector.fromArray(OUTPUT_INPUT_SPECIES, outputWeights,
+                    weightOffset + i).convertShape(VectorOperators.S2I, OUTPUT_SPECIES, 0);
+            sum = sum.add(activation.mul(weight));
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < this.hiddenSize; i++) {
+            final int activation = Math.max(0, Math.min(NnueNetwork.ACTIVATION_MAX, accumulator[offset + i]));
+            result += activation * outputWeights[weightOffset + i];
+        }
+        return result;
+    }
+
+    private void grow() {
+        final int capacity = this.accumulators.length * 2;
+        final short[][] grownAccumulators = Arrays.copyOf(this.accumulators, capacity);
+        final int[][] grownKingBuckets = Arrays.copyOf(this.kingBuckets, capacity);
+        for (int i = this.accumulators.length; i < capacity; i++) {
+            grownAccumulators[i] = new short[PERSPECTIVES * this.hiddenSize];
+            grownKingBuckets[i] = new int[PERSPECTIVES];
+        }
+        this.accumulators = grownAccumulators;
+        this.kingBuckets = grownKingBuckets;
+    }
+
+    @Override
+    public String toString() {
+        return "NnueAccumulator(" + this.network + ", depth " + this.depth + ")";
+    }
+}
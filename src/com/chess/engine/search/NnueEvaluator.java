@@ -0,0 +1,52 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.SearchBoard;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Evaluates positions with a {@link NnueNetwork}. A board attached by the search keeps its accumulators up to date
+ * move by move, so a leaf evaluation only runs the output layer; any other board is evaluated from scratch. The
+ * UCI front-end switches to it with {@code setoption name EvalFile value <network file>}.
+ *
+ * The network code uses the incubating Vector API, so the JVM needs {@code --add-modules jdk.incubator.vector}.
+ */
+public final class NnueEvaluator implements BoardEvaluator {
+
+    private final NnueNetwork network;
+
+    public NnueEvaluator(final NnueNetwork network) {
+        this.network = network;
+    }
+
+    public static NnueEvaluator load(final Path file) throws IOException {
+        return new NnueEvaluator(NnueNetwork.load(file));
+    }
+
+    public NnueNetwork getNetwork() {
+        return this.network;
+    }
+
+    @Override
+    public void attach(final SearchBoard board) {
+        board.setListener(new NnueAccumulator(this.network, board));
+    }
+
+    @Override
+    public int evaluate(final SearchBoard board) {
+        final SearchBoard.Listener listener = board.getListener();
+        if (listener instanceof NnueAccumulator) {
+            final NnueAccumulator accumulator = (NnueAccumulator) listener;
+            if (accumulator.getNetwork() == this.network && accumulator.getBoard() == board) {
+                return accumulator.evaluate();
+            }
+        }
+        return new NnueAccumulator(this.network, board).evaluate();
+    }
+
+    @Override
+    public String toString() {
+        return "NnueEvaluator(" + this.network + ")";
+    }
+}
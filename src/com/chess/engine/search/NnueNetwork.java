@@ -0,0 +1,258 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * The weights of a small quantized evaluation network with HalfKP-style inputs: from each side's perspective, one
+ * input per (king bucket of that side's king, own or enemy, non-king piece type, tile), with the board mirrored
+ * for Black so that both perspectives see their own pieces moving up. The inputs feed a hidden layer of int16
+ * accumulators, one per perspective; their clipped values, side to move first, feed a single int16 output.
+ *
+ * The file format is little-endian:
+ * <pre>
+ *   8 bytes    magic "BTLNNUE1"
+ *   int        number of king buckets, 1 to 64
+ *   int        hidden size, a positive multiple of 16
+ *   64 bytes   king bucket of each tile
+ *   short[]    feature weights, buckets * 640 rows of hidden size
+ *   short[]    feature biases, hidden size
+ *   short[]    output weights, 2 * hidden size, side to move half first
+ *   int        output bias
+ * </pre>
+ * The score is {@code (output + bias) * }{@link #OUTPUT_SCALE}{@code  / (}{@link #ACTIVATION_MAX}{@code  * }
+ * {@link #OUTPUT_WEIGHT_SCALE}{@code )} centipawns.
+ */
+public final class NnueNetwork {
+
+    public static final int ACTIVATION_MAX = 255;
+    public static final int OUTPUT_WEIGHT_SCALE = 64;
+    public static final int OUTPUT_SCALE = 400;
+
+    static final int FEATURES_PER_BUCKET = 2 * 5 * BoardUtils.NUM_TILES;
+
+    private static final byte[] MAGIC = "BTLNNUE1".getBytes(StandardCharsets.US_ASCII);
+    private static final int HIDDEN_ALIGNMENT = 16;
+    private static final String TEST_NETWORK_RESOURCE = "tiny.nnue";
+
+    private final int kingBuckets;
+    private final int hiddenSize;
+    private final byte[] kingBucketMap;
+    private final short[] featureWeights;
+    private final short[] featureBiases;
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    private NnueNetwork(final int kingBuckets,
+                        final int hiddenSize,
+                        final byte[] kingBucketMap,
+                        final short[] featureWeights,
+                        final short[] featureBiases,
+                        final short[] outputWeights,
+                        final int outputBias) {
+        this.kingBuckets = kingBuckets;
+        this.hiddenSize = hiddenSize;
+        this.kingBucketMap = kingBucketMap;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    public static NnueNetwork load(final Path file) throws IOException {
+        return parse(Files.readAllBytes(file));
+    }
+
+    /**
+     * The tiny network bundled for tests and benchmarks. It only encodes material and piece-square values, see
+     * {@link #main(String[])}.
+     */
+    public static NnueNetwork loadTestNetwork() throws IOException {
+        try (final InputStream in = NnueNetwork.class.getResourceAsStream(TEST_NETWORK_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + TEST_NETWORK_RESOURCE);
+            }
+            return parse(in.readAllBytes());
+        }
+    }
+
+    public int getKingBuckets() {
+        return this.kingBuckets;
+    }
+
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    /**
+     * The king bucket of perspective's own king standing on kingTile.
+     */
+    int kingBucket(final Alliance perspective,
+                   final int kingTile) {
+        return this.kingBucketMap[perspective.isWhite() ? kingTile : kingTile ^ 56];
+    }
+
+    /**
+     * The input row of a non-king piece seen from perspective, whose king is in kingBucket.
+     */
+    static int featureIndex(final Alliance perspective,
+                            final int kingBucket,
+                            final Alliance pieceAlliance,
+                            final PieceType pieceType,
+                            final int tile) {
+        final int side = pieceAlliance == perspective ? 0 : 1;
+        final int orientedTile = perspective.isWhite() ? tile : tile ^ 56;
+        return kingBucket * FEATURES_PER_BUCKET + (side * 5 + pieceType.ordinal()) * BoardUtils.NUM_TILES + orientedTile;
+    }
+
+    short[] getFeatureWeights() {
+        return this.featureWeights;
+    }
+
+    short[] getFeatureBiases() {
+        return this.featureBiases;
+    }
+
+    short[] getOutputWeights() {
+        return this.outputWeights;
+    }
+
+    int getOutputBias() {
+        return this.outputBias;
+    }
+
+    private static NnueNetwork parse(final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            final byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a network file");
+            }
+            final int kingBuckets = buffer.getInt();
+            final int hiddenSize = buffer.getInt();
+            if (kingBuckets < 1 || kingBuckets > BoardUtils.NUM_TILES ||
+                hiddenSize < 1 || hiddenSize % HIDDEN_ALIGNMENT != 0) {
+                throw new IOException("Bad network dimensions: " + kingBuckets + " buckets, hidden " + hiddenSize);
+            }
+            final byte[] kingBucketMap = new byte[BoardUtils.NUM_TILES];
+            buffer.get(kingBucketMap);
+            for (final byte bucket : kingBucketMap) {
+                if (bucket < 0 || bucket >= kingBuckets) {
+                    throw new IOException("Bad king bucket: " + bucket);
+                }
+            }
+            final short[] featureWeights = new short[kingBuckets * FEATURES_PER_BUCKET * hiddenSize];
+            buffer.asShortBuffer().get(featureWeights);
+            buffer.position(buffer.position() + featureWeights.length * Short.BYTES);
+            final short[] featureBiases = new short[hiddenSize];
+            buffer.asShortBuffer().get(featureBiases);
+            buffer.position(buffer.position() + featureBiases.length * Short.BYTES);
+            final short[] outputWeights = new short[2 * hiddenSize];
+            buffer.asShortBuffer().get(outputWeights);
+            buffer.position(buffer.position() + outputWeights.length * Short.BYTES);
+            final int outputBias = buffer.getInt();
+            if (buffer.hasRemaining()) {
+                throw new IOException("Trailing bytes in network file");
+            }
+            return new NnueNetwork(kingBuckets, hiddenSize, kingBucketMap, featureWeights, featureBiases,
+                    outputWeights, outputBias);
+        } catch (final RuntimeException e) {
+            throw new IOException("Truncated network file", e);
+        }
+    }
+
+    public void write(final OutputStream out) throws IOException {
+        final int size = MAGIC.length + 2 * Integer.BYTES + BoardUtils.NUM_TILES +
+                (this.featureWeights.length + this.featureBiases.length + this.outputWeights.length) * Short.BYTES +
+                Integer.BYTES;
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).putInt(this.kingBuckets).putInt(this.hiddenSize).put(this.kingBucketMap);
+        for (final short weight : this.featureWeights) {
+            buffer.putShort(weight);
+        }
+        for (final short bias : this.featureBiases) {
+            buffer.putShort(bias);
+        }
+        for (final short weight : this.outputWeights) {
+            buffer.putShort(weight);
+        }
+        buffer.putInt(this.outputBias);
+        out.write(buffer.array());
+    }
+
+    /**
+     * A network that reproduces the averaged midgame and endgame material and piece-square values of
+     * {@link PieceSquareTables}: hidden unit t sums the values of the own minus the enemy pieces of type t around a
+     * bias in the middle of the activation range, and the output weighs the side to move's half against the
+     * other's. Four king buckets split the board into quarters; they share weights here but exercise the format.
+     */
+    static NnueNetwork createTestNetwork() {
+        final int kingBuckets = 4;
+        final int hiddenSize = HIDDEN_ALIGNMENT;
+        final int[] divisors = {8, 8, 8, 10, 12};
+        final int midpoint = (ACTIVATION_MAX + 1) / 2;
+        final byte[] kingBucketMap = new byte[BoardUtils.NUM_TILES];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            kingBucketMap[tile] = (byte) ((tile >>> 3 < 4 ? 0 : 2) + ((tile & 7) < 4 ? 0 : 1));
+        }
+        final short[] featureWeights = new short[kingBuckets * FEATURES_PER_BUCKET * hiddenSize];
+        for (int bucket = 0; bucket < kingBuckets; bucket++) {
+            for (int side = 0; side < 2; side++) {
+                for (final PieceType pieceType : PieceType.values()) {
+                    if (pieceType == PieceType.KING) {
+                        continue;
+                    }
+                    for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                        final int tableTile = side == 0 ? tile : tile ^ 56;
+                        final int value = (PieceSquareTables.midgame(Alliance.WHITE, pieceType, tableTile) +
+                                           PieceSquareTables.endgame(Alliance.WHITE, pieceType, tableTile)) / 2;
+                        final int row = bucket * FEATURES_PER_BUCKET +
+                                (side * 5 + pieceType.ordinal()) * BoardUtils.NUM_TILES + tile;
+                        final int weight = Math.round((float) value / divisors[pieceType.ordinal()]);
+                        featureWeights[row * hiddenSize + pieceType.ordinal()] = (short) (side == 0 ? weight : -weight);
+                    }
+                }
+            }
+        }
+        final short[] featureBiases = new short[hiddenSize];
+        final short[] outputWeights = new short[2 * hiddenSize];
+        for (int unit = 0; unit < divisors.length; unit++) {
+            featureBiases[unit] = (short) midpoint;
+            final int weight = Math.round((float) divisors[unit] * ACTIVATION_MAX * OUTPUT_WEIGHT_SCALE /
+                    (2 * OUTPUT_SCALE));
+            outputWeights[unit] = (short) weight;
+            outputWeights[hiddenSize + unit] = (short) -weight;
+        }
+        return new NnueNetwork(kingBuckets, hiddenSize, kingBucketMap, featureWeights, featureBiases,
+                outputWeights, 0);
+    }
+
+    /**
+     * Writes the bundled test network to the given file, or to {@code tiny.nnue} in the working directory.
+     */
+    public static void main(final String[] args) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        createTestNetwork().write(bytes);
+        Files.write(Paths.get(args.length > 0 ? args[0] : TEST_NETWORK_RESOURCE), bytes.toByteArray());
+    }
+
+    @Override
+    public String toString() {
+        return "NnueNetwork(" + this.kingBuckets + " king buckets, hidden " + this.hiddenSize + ")";
+    }
+}
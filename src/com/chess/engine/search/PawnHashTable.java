@@ -0,0 +1,126 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A direct-mapped cache of pawn structure evaluations keyed by pawn Zobrist key, shared by all search threads
+ * without locking in the same way as {@link TranspositionTable}: each entry is the key XOR the data followed by the
+ * data, and a torn entry reads as a miss.
+ *
+ * The data word packs, from the low bits up: the packed midgame/endgame pawn score (32 bits), the files holding a
+ * white passed pawn (8 bits) and the files holding a black passed pawn (8 bits). The top bit is always set so that
+ * a stored entry is never 0.
+ */
+public final class PawnHashTable {
+
+    public static final int DEFAULT_SIZE_MB = 1;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+    private static final int PASSED_FILES_SHIFT = 32;
+    private static final long VALID = 1L << 63;
+
+    private final long[] table;
+    private final int mask;
+    private final LongAdder probes;
+    private final LongAdder hits;
+
+    public PawnHashTable(final int sizeMb) {
+        if (sizeMb < 1) {
+            throw new RuntimeException("Pawn hash table size must be at least 1 MB: " + sizeMb);
+        }
+        final long entries = Long.highestOneBit((long) sizeMb * 1024 * 1024 / BYTES_PER_ENTRY);
+        if (entries * LONGS_PER_ENTRY > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Pawn hash table too large: " + sizeMb + " MB");
+        }
+        this.table = new long[(int) entries * LONGS_PER_ENTRY];
+        this.mask = (int) entries - 1;
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
+    }
+
+    /**
+     * The data word stored for key, or 0 when there is no entry for it. Decode with the static accessors.
+     */
+    public long probe(final long key) {
+        final int index = index(key);
+        final long data = this.table[index + 1];
+        this.probes.increment();
+        if (data != 0L && (this.table[index] ^ data) == key) {
+            this.hits.increment();
+            return data;
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a pawn evaluation and returns its data word.
+     */
+    public long store(final long key,
+                      final int score,
+                      final int whitePassedFiles,
+                      final int blackPassedFiles) {
+        final long data = VALID |
+                (score & 0xFFFFFFFFL) |
+                ((long) (whitePassedFiles & 0xFF) << PASSED_FILES_SHIFT) |
+                ((long) (blackPassedFiles & 0xFF) << (PASSED_FILES_SHIFT + 8));
+        final int index = index(key);
+        this.table[index] = key ^ data;
+        this.table[index + 1] = data;
+        return data;
+    }
+
+    public static int score(final long data) {
+        return (int) data;
+    }
+
+    /**
+     * The files, as a bit per file from the a-file up, holding a passed pawn of alliance.
+     */
+    public static int passedFiles(final long data,
+                                  final Alliance alliance) {
+        return (int) (data >>> (PASSED_FILES_SHIFT + 8 * alliance.ordinal())) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        resetStatistics();
+    }
+
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Hits per probe since creation or the last {@link #resetStatistics()}, for sizing the table.
+     */
+    public double getHitRate() {
+        final long probeCount = getProbes();
+        return probeCount == 0 ? 0.0 : (double) getHits() / probeCount;
+    }
+
+    public void resetStatistics() {
+        this.probes.reset();
+        this.hits.reset();
+    }
+
+    public int getSizeMb() {
+        return (int) ((long) this.table.length * Long.BYTES / (1024 * 1024));
+    }
+
+    private int index(final long key) {
+        return ((int) (key ^ (key >>> 32)) & this.mask) * LONGS_PER_ENTRY;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PawnHashTable(%d MB, hit rate %.1f%%)", getSizeMb(), 100 * getHitRate());
+    }
+}
@@ -0,0 +1,70 @@
+package com.chess.engine.search;
+
+public final class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+    public static final long UNLIMITED = 0L;
+
+    private final int maxDepth;
+    private final long moveTimeMillis;
+    private final long maxNodes;
+
+    private SearchLimits(final Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.moveTimeMillis = builder.moveTimeMillis;
+        this.maxNodes = builder.maxNodes;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    public long getMoveTimeMillis() {
+        return this.moveTimeMillis;
+    }
+
+    public long getMaxNodes() {
+        return this.maxNodes;
+    }
+
+    public boolean isTimeLimited() {
+        return this.moveTimeMillis != UNLIMITED;
+    }
+
+    public boolean isNodeLimited() {
+        return this.maxNodes != UNLIMITED;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + this.maxDepth +
+               (isTimeLimited() ? " movetime " + this.moveTimeMillis : "") +
+               (isNodeLimited() ? " nodes " + this.maxNodes : "");
+    }
+
+    public static class Builder {
+
+        int maxDepth = MAX_DEPTH;
+        long moveTimeMillis = UNLIMITED;
+        long maxNodes = UNLIMITED;
+
+        public Builder setMaxDepth(final int maxDepth) {
+            this.maxDepth = Math.max(1, Math.min(maxDepth, MAX_DEPTH));
+            return this;
+        }
+
+        public Builder setMoveTimeMillis(final long moveTimeMillis) {
+            this.moveTimeMillis = moveTimeMillis;
+            return this;
+        }
+
+        public Builder setMaxNodes(final long maxNodes) {
+            this.maxNodes = maxNodes;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.MoveBuffer;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Iterative-deepening principal variation search with quiescence over a single {@link SearchBoard}. Scores are
+ * from the point of view of the side to move.
+ */
+final class SearchWorker {
+
+    static final int INFINITY = 32001;
+    static final int MATE = 32000;
+    static final int MAX_PLY = 128;
+    static final int DRAW_SCORE = 0;
+
+    private static final int CHECK_INTERVAL = 2047;
+
+    /**
+     * Helper threads skip some iterations so that at any time they are spread over the main thread's depth and
+     * the next one or two, instead of all repeating the same search.
+     */
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final SearchBoard board;
+    private final SearchLimits limits;
+    private final TranspositionTable transpositionTable;
+    private final BoardEvaluator evaluator;
+    private final AtomicBoolean stopFlag;
+    private final AtomicLong sharedNodes;
+    private final int threadIndex;
+    private final long deadline;
+    private final MoveBuffer[] plyMoves;
+    private final int[][] plyScores;
+    private final int[] plyMove;
+    private final MoveOrderer moveOrderer;
+    private final int[][] pvTable;
+    private final int[] pvLength;
+
+    private long nodes;
+    private long reportedNodes;
+    private boolean aborted;
+    private int completedDepth;
+    private int bestScore;
+    private int[] principalVariation;
+    private Runnable iterationListener;
+
+    SearchWorker(final SearchBoard board,
+                 final SearchLimits limits,
+                 final TranspositionTable transpositionTable,
+                 final BoardEvaluator evaluator,
+                 final AtomicBoolean stopFlag,
+                 final AtomicLong sharedNodes,
+                 final int threadIndex) {
+        this.board = board;
+        this.limits = limits;
+        this.transpositionTable = transpositionTable;
+        this.evaluator = evaluator;
+        this.evaluator.attach(board);
+        this.stopFlag = stopFlag;
+        this.sharedNodes = sharedNodes;
+        this.threadIndex = threadIndex;
+        this.deadline = limits.isTimeLimited() ?
+                System.nanoTime() + limits.getMoveTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        this.plyMoves = new MoveBuffer[MAX_PLY];
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            this.plyMoves[ply] = new MoveBuffer();
+        }
+        this.plyScores = new int[MAX_PLY][MoveBuffer.MAX_MOVES];
+        this.plyMove = new int[MAX_PLY];
+        this.moveOrderer = new MoveOrderer(board);
+        this.pvTable = new int[MAX_PLY][MAX_PLY];
+        this.pvLength = new int[MAX_PLY];
+        this.principalVariation = new int[0];
+    }
+
+    /**
+     * Sets a callback run on this worker's thread after each completed iteration.
+     */
+    void setIterationListener(final Runnable iterationListener) {
+        this.iterationListener = iterationListener;
+    }
+
+    void iterate() {
+        for (int depth = 1; depth <= this.limits.getMaxDepth(); depth++) {
+            if (skipsDepth(depth)) {
+                continue;
+            }
+            final int score = search(depth, -INFINITY, INFINITY, 0);
+            if (this.aborted) {
+                break;
+            }
+            this.completedDepth = depth;
+            this.bestScore = score;
+            this.principalVariation = Arrays.copyOf(this.pvTable[0], this.pvLength[0]);
+            if (this.iterationListener != null) {
+                this.iterationListener.run();
+            }
+            if (this.principalVariation.length == 0 || isMateScore(score)) {
+                break;
+            }
+        }
+    }
+
+    private boolean skipsDepth(final int depth) {
+        if (this.threadIndex == 0 || depth == this.limits.getMaxDepth()) {
+            return false;
+        }
+        final int pattern = (this.threadIndex - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[pattern]) / SKIP_SIZE[pattern]) % 2 != 0;
+    }
+
+    /**
+     * The first move of the principal variation of the last completed iteration, or {@link MoveEncoding#NONE}.
+     */
+    int getBestMove() {
+        return this.principalVariation.length == 0 ? MoveEncoding.NONE : this.principalVariation[0];
+    }
+
+    int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    int getBestScore() {
+        return this.bestScore;
+    }
+
+    int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    long getNodes() {
+        return this.nodes;
+    }
+
+    private int search(int depth,
+                       int alpha,
+                       final int beta,
+                       final int ply) {
+        this.pvLength[ply] = ply;
+        if (shouldAbort()) {
+            return 0;
+        }
+        if (ply > 0 && this.board.isRepetition()) {
+            return DRAW_SCORE;
+        }
+        final boolean inCheck = this.board.isKingInCheck(this.board.getSideToMove());
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        this.nodes++;
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+
+        final long key = this.board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != 0L && ply > 0 && beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+            final int score = scoreFromTable(TranspositionTable.score(entry), ply);
+            final int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT ||
+                (bound == TranspositionTable.BOUND_LOWER && score >= beta) ||
+                (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+        if (ply == 0 && getBestMove() != MoveEncoding.NONE) {
+            hashMove = getBestMove();
+        }
+
+        final MoveBuffer moves = this.plyMoves[ply];
+        final int previousMove = ply == 0 ? MoveEncoding.NONE : this.plyMove[ply - 1];
+        this.board.generateMoves(moves);
+        this.moveOrderer.scoreMoves(moves, this.plyScores[ply], hashMove, ply, previousMove);
+
+        final int originalAlpha = alpha;
+        int legalMoves = 0;
+        int best = -INFINITY;
+        int bestMove = MoveEncoding.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = MoveOrderer.pickNextMove(moves, this.plyScores[ply], i);
+            if (!this.board.makeMove(move)) {
+                this.board.unmakeMove();
+                continue;
+            }
+            this.plyMove[ply] = move;
+            legalMoves++;
+            int score;
+            if (legalMoves == 1) {
+                score = -search(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                score = -search(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            this.board.unmakeMove();
+            if (this.aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        this.moveOrderer.recordCutoff(move, ply, depth, previousMove, moves, i);
+                        break;
+                    }
+                }
+            }
+        }
+        if (legalMoves == 0) {
+            return inCheck ? -MATE + ply : DRAW_SCORE;
+        }
+        final int bound = best >= beta ? TranspositionTable.BOUND_LOWER :
+                          best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        this.transpositionTable.store(key, bound == TranspositionTable.BOUND_UPPER ? MoveEncoding.NONE : bestMove,
+                scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Searches captures until the position is quiet. A side in check may not stand pat and searches all its
+     * evasions instead, so that a checking capture is answered and a mate is scored as one.
+     */
+    private int quiescence(int alpha,
+                           final int beta,
+                           final int ply) {
+        this.pvLength[ply] = ply;
+        if (shouldAbort()) {
+            return 0;
+        }
+        this.nodes++;
+        final boolean inCheck = this.board.isKingInCheck(this.board.getSideToMove());
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+        final MoveBuffer moves = this.plyMoves[ply];
+        if (inCheck) {
+            this.board.generateMoves(moves);
+            this.moveOrderer.scoreMoves(moves, this.plyScores[ply], MoveEncoding.NONE, ply, MoveEncoding.NONE);
+        } else {
+            final int standPat = evaluate();
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            this.board.generateCaptures(moves);
+            this.moveOrderer.scoreCaptures(moves, this.plyScores[ply]);
+        }
+        int legalMoves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = MoveOrderer.pickNextMove(moves, this.plyScores[ply], i);
+            if (!inCheck && MoveOrderer.isLosingCapture(this.plyScores[ply][i])) {
+                break;
+            }
+            if (!this.board.makeMove(move)) {
+                this.board.unmakeMove();
+                continue;
+            }
+            legalMoves++;
+            final int score = -quiescence(-beta, -alpha, ply + 1);
+            this.board.unmakeMove();
+            if (this.aborted) {
+                return 0;
+            }
+            if (score > alpha) {
+                if (score >= beta) {
+                    return score;
+                }
+                alpha = score;
+                updatePrincipalVariation(ply, move);
+            }
+        }
+        if (inCheck && legalMoves == 0) {
+            return -MATE + ply;
+        }
+        return alpha;
+    }
+
+    private int evaluate() {
+        return this.evaluator.evaluate(this.board);
+    }
+
+    private void updatePrincipalVariation(final int ply,
+                                          final int move) {
+        this.pvTable[ply][ply] = move;
+        final int childLength = this.pvLength[ply + 1];
+        for (int next = ply + 1; next < childLength; next++) {
+            this.pvTable[ply][next] = this.pvTable[ply + 1][next];
+        }
+        this.pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    /**
+     * Only the main thread finishes its first iteration regardless of the limits, so that there is always a move to
+     * play; helpers may have skipped that iteration and must stop as soon as they are told to.
+     */
+    private boolean shouldAbort() {
+        if (this.aborted) {
+            return true;
+        }
+        if ((this.nodes & CHECK_INTERVAL) == 0 && (this.threadIndex != 0 || this.completedDepth > 0)) {
+            this.aborted = this.stopFlag.get() ||
+                    System.nanoTime() >= this.deadline ||
+                    (this.limits.isNodeLimited() && reportNodes() >= this.limits.getMaxNodes());
+        }
+        return this.aborted;
+    }
+
+    /**
+     * Adds the nodes searched since the last report to the total of all workers, and returns that total, so that
+     * a node limit bounds the whole search rather than each thread.
+     */
+    private long reportNodes() {
+        final long total = this.sharedNodes.addAndGet(this.nodes - this.reportedNodes);
+        this.reportedNodes = this.nodes;
+        return total;
+    }
+
+    static boolean isMateScore(final int score) {
+        return Math.abs(score) >= MATE - MAX_PLY;
+    }
+
+    /**
+     * Mate scores are stored relative to the node rather than the root, so they stay correct when the entry is
+     * found at a different ply.
+     */
+    static int scoreToTable(final int score,
+                            final int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score + ply : score - ply;
+        }
+        return score;
+    }
+
+    static int scoreFromTable(final int score,
+                              final int ply) {
+        if (isMateScore(score)) {
+            return score > 0 ? score - ply : score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,283 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * An evaluation with separate midgame and endgame scores blended by the game phase. Material and piece-square
+ * values come incrementally from the {@link SearchBoard}; mobility and king safety are computed from the
+ * bitboards on each call, and pawn structure is cached in a {@link PawnHashTable} by pawn key.
+ *
+ * Terms are packed into one int as {@code endgame << 16 + midgame} so that both halves are summed together.
+ */
+public final class TaperedEvaluator implements BoardEvaluator {
+
+    private static final int BISHOP_PAIR = score(30, 50);
+    private static final int DOUBLED_PAWN = score(-10, -20);
+    private static final int ISOLATED_PAWN = score(-10, -15);
+    private static final int BACKWARD_PAWN = score(-8, -10);
+    private static final int PASSED_PAWN_OWN_KING_DISTANCE = score(0, -2);
+    private static final int PASSED_PAWN_ENEMY_KING_DISTANCE = score(0, 5);
+    private static final int[] PASSED_PAWN = {
+            score(0, 0), score(5, 10), score(10, 20), score(15, 35),
+            score(30, 60), score(50, 100), score(80, 150), score(0, 0)
+    };
+    private static final int PAWN_SHIELD = score(10, 0);
+    private static final int[] MOBILITY = {0, score(4, 4), score(5, 5), score(2, 4), score(1, 2), 0};
+    private static final int[] MOBILITY_BASELINE = {0, 4, 7, 7, 14, 0};
+    private static final int[] KING_ATTACK_WEIGHTS = {0, 2, 2, 3, 5, 0};
+    private static final int MAX_KING_DANGER = 500;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+    private static final long[] FILE_MASKS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long[] ADJACENT_FILE_MASKS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[][] PAWN_SHIELD_MASKS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[][] PAWN_SUPPORT_MASKS = new long[2][BoardUtils.NUM_TILES];
+
+    static {
+        for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            FILE_MASKS[file] = FILE_A << file;
+        }
+        for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            ADJACENT_FILE_MASKS[file] = (file > 0 ? FILE_MASKS[file - 1] : 0L) |
+                                        (file < 7 ? FILE_MASKS[file + 1] : 0L);
+        }
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int row = tile >>> 3;
+            final long files = FILE_MASKS[tile & 7] | ADJACENT_FILE_MASKS[tile & 7];
+            for (int other = 0; other < BoardUtils.NUM_TILES; other++) {
+                final int otherRow = other >>> 3;
+                if (!BitBoardUtils.isSet(files, other)) {
+                    continue;
+                }
+                if (otherRow >= row && other != tile && BitBoardUtils.isSet(ADJACENT_FILE_MASKS[tile & 7], other)) {
+                    PAWN_SUPPORT_MASKS[Alliance.WHITE.ordinal()][tile] |= BitBoardUtils.bit(other);
+                }
+                if (otherRow <= row && other != tile && BitBoardUtils.isSet(ADJACENT_FILE_MASKS[tile & 7], other)) {
+                    PAWN_SUPPORT_MASKS[Alliance.BLACK.ordinal()][tile] |= BitBoardUtils.bit(other);
+                }
+                if (otherRow < row) {
+                    PASSED_PAWN_MASKS[Alliance.WHITE.ordinal()][tile] |= BitBoardUtils.bit(other);
+                    if (row - otherRow <= 2) {
+                        PAWN_SHIELD_MASKS[Alliance.WHITE.ordinal()][tile] |= BitBoardUtils.bit(other);
+                    }
+                } else if (otherRow > row) {
+                    PASSED_PAWN_MASKS[Alliance.BLACK.ordinal()][tile] |= BitBoardUtils.bit(other);
+                    if (otherRow - row <= 2) {
+                        PAWN_SHIELD_MASKS[Alliance.BLACK.ordinal()][tile] |= BitBoardUtils.bit(other);
+                    }
+                }
+            }
+        }
+    }
+
+    private final PawnHashTable pawnHashTable;
+
+    public TaperedEvaluator() {
+        this(new PawnHashTable(PawnHashTable.DEFAULT_SIZE_MB));
+    }
+
+    public TaperedEvaluator(final PawnHashTable pawnHashTable) {
+        this.pawnHashTable = pawnHashTable;
+    }
+
+    public PawnHashTable getPawnHashTable() {
+        return this.pawnHashTable;
+    }
+
+    @Override
+    public int evaluate(final SearchBoard board) {
+        long pawnData = this.pawnHashTable.probe(board.getPawnKey());
+        if (pawnData == 0L) {
+            pawnData = evaluatePawnStructure(board);
+        }
+        final int packed = evaluatePieces(board, Alliance.WHITE) - evaluatePieces(board, Alliance.BLACK) +
+                           PawnHashTable.score(pawnData) +
+                           evaluatePassedPawnKings(board, Alliance.WHITE, pawnData) -
+                           evaluatePassedPawnKings(board, Alliance.BLACK, pawnData);
+        final int midgame = board.getMidgameScore() + midgame(packed);
+        final int endgame = board.getEndgameScore() + endgame(packed);
+        final int phase = Math.min(board.getGamePhase(), PieceSquareTables.MAX_PHASE);
+        final int score = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) /
+                PieceSquareTables.MAX_PHASE;
+        return board.getSideToMove().isWhite() ? score : -score;
+    }
+
+    /**
+     * Bishop pair, mobility and king safety of one side: mobility counts the tiles each piece attacks that hold no
+     * own piece and are not attacked by an enemy pawn, and the enemy king is in danger when several pieces attack
+     * the tiles around it.
+     */
+    private static int evaluatePieces(final SearchBoard board,
+                                      final Alliance side) {
+        final Alliance enemy = side.opposite();
+        final long occupancy = board.getOccupancy();
+        final long available = ~board.getOccupancy(side) & ~pawnAttacks(enemy, board.getPieceBitboard(enemy,
+                PieceType.PAWN));
+        final int enemyKing = board.getKingPosition(enemy);
+        final long kingZone = BitBoardUtils.kingAttacks(enemyKing) | BitBoardUtils.bit(enemyKing);
+        int packed = Long.bitCount(board.getPieceBitboard(side, PieceType.BISHOP)) >= 2 ? BISHOP_PAIR : 0;
+        int kingAttackers = 0;
+        int kingAttackUnits = 0;
+        for (int type = PieceType.KNIGHT.ordinal(); type <= PieceType.QUEEN.ordinal(); type++) {
+            final PieceType pieceType = PIECE_TYPES[type];
+            long pieces = board.getPieceBitboard(side, pieceType);
+            while (pieces != 0L) {
+                final int tile = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                final long attacks = attacks(pieceType, tile, occupancy);
+                packed += MOBILITY[type] * (Long.bitCount(attacks & available) - MOBILITY_BASELINE[type]);
+                if ((attacks & kingZone) != 0L) {
+                    kingAttackers++;
+                    kingAttackUnits += KING_ATTACK_WEIGHTS[type] * Long.bitCount(attacks & kingZone);
+                }
+            }
+        }
+        if (kingAttackers >= 2) {
+            packed += score(Math.min(kingAttackUnits * kingAttackUnits, MAX_KING_DANGER), 0);
+        }
+        final long shield = PAWN_SHIELD_MASKS[side.ordinal()][board.getKingPosition(side)];
+        packed += PAWN_SHIELD * Long.bitCount(shield & board.getPieceBitboard(side, PieceType.PAWN));
+        return packed;
+    }
+
+    /**
+     * Evaluates the pawn structure of both sides and caches it under the pawn key.
+     */
+    private long evaluatePawnStructure(final SearchBoard board) {
+        final int[] passedFiles = new int[2];
+        final int score = evaluatePawns(board, Alliance.WHITE, passedFiles) -
+                          evaluatePawns(board, Alliance.BLACK, passedFiles);
+        return this.pawnHashTable.store(board.getPawnKey(), score,
+                passedFiles[Alliance.WHITE.ordinal()], passedFiles[Alliance.BLACK.ordinal()]);
+    }
+
+    /**
+     * Doubled, isolated, backward and passed pawns of one side. Only the most advanced pawn of a file can be
+     * passed; the files of the passed pawns are recorded in passedFiles.
+     */
+    private static int evaluatePawns(final SearchBoard board,
+                                     final Alliance side,
+                                     final int[] passedFiles) {
+        final long pawns = board.getPieceBitboard(side, PieceType.PAWN);
+        final long enemyPawns = board.getPieceBitboard(side.opposite(), PieceType.PAWN);
+        int packed = 0;
+        for (int file = 0; file < BoardUtils.NUM_TILES_PER_ROW; file++) {
+            final long filePawns = pawns & FILE_MASKS[file];
+            if (filePawns == 0L) {
+                continue;
+            }
+            final int count = Long.bitCount(filePawns);
+            if (count > 1) {
+                packed += DOUBLED_PAWN * (count - 1);
+            }
+            final int front = frontmostPawn(side, filePawns);
+            if ((enemyPawns & PASSED_PAWN_MASKS[side.ordinal()][front]) == 0L) {
+                packed += PASSED_PAWN[relativeRank(side, front)];
+                passedFiles[side.ordinal()] |= 1 << file;
+            }
+        }
+        long remaining = pawns;
+        while (remaining != 0L) {
+            final int tile = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if ((pawns & ADJACENT_FILE_MASKS[tile & 7]) == 0L) {
+                packed += ISOLATED_PAWN;
+            } else if ((pawns & PAWN_SUPPORT_MASKS[side.ordinal()][tile]) == 0L &&
+                       (BitBoardUtils.pawnAttacks(side, stopTile(side, tile)) & enemyPawns) != 0L) {
+                packed += BACKWARD_PAWN;
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * In the endgame a passed pawn is stronger the farther the enemy king and the nearer the own king are from the
+     * tile in front of it. Depends on the kings, so it is not cached with the pawn structure.
+     */
+    private static int evaluatePassedPawnKings(final SearchBoard board,
+                                               final Alliance side,
+                                               final long pawnData) {
+        int packed = 0;
+        final int ownKing = board.getKingPosition(side);
+        final int enemyKing = board.getKingPosition(side.opposite());
+        final long pawns = board.getPieceBitboard(side, PieceType.PAWN);
+        for (int files = PawnHashTable.passedFiles(pawnData, side); files != 0; files &= files - 1) {
+            final int file = Integer.numberOfTrailingZeros(files);
+            final int stop = stopTile(side, frontmostPawn(side, pawns & FILE_MASKS[file]));
+            packed += PASSED_PAWN_OWN_KING_DISTANCE * distance(ownKing, stop) +
+                      PASSED_PAWN_ENEMY_KING_DISTANCE * distance(enemyKing, stop);
+        }
+        return packed;
+    }
+
+    private static int frontmostPawn(final Alliance side,
+                                     final long filePawns) {
+        return side.isWhite() ? Long.numberOfTrailingZeros(filePawns) : 63 - Long.numberOfLeadingZeros(filePawns);
+    }
+
+    private static int stopTile(final Alliance side,
+                                final int tile) {
+        return tile + side.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private static int relativeRank(final Alliance side,
+                                    final int tile) {
+        return side.isWhite() ? 7 - (tile >>> 3) : tile >>> 3;
+    }
+
+    private static int distance(final int first,
+                                final int second) {
+        return Math.max(Math.abs((first >>> 3) - (second >>> 3)), Math.abs((first & 7) - (second & 7)));
+    }
+
+    private static long attacks(final PieceType pieceType,
+                                final int tile,
+                                final long occupancy) {
+        switch (pieceType) {
+            case KNIGHT:
+                return BitBoardUtils.knightAttacks(tile);
+            case BISHOP:
+                return BitBoardUtils.bishopAttacks(tile, occupancy);
+            case ROOK:
+                return BitBoardUtils.rookAttacks(tile, occupancy);
+            default:
+                return BitBoardUtils.queenAttacks(tile, occupancy);
+        }
+    }
+
+    /**
+     * Tiles attacked by a set of pawns; white pawns attack towards lower tiles.
+     */
+    private static long pawnAttacks(final Alliance alliance,
+                                    final long pawns) {
+        return alliance.isWhite() ?
+                ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7) :
+                ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9);
+    }
+
+    static int score(final int midgame,
+                     final int endgame) {
+        return (endgame << 16) + midgame;
+    }
+
+    static int midgame(final int packed) {
+        return (short) packed;
+    }
+
+    static int endgame(final int packed) {
+        return (short) ((packed + 0x8000) >> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "TaperedEvaluator(" + this.pawnHashTable + ")";
+    }
+}
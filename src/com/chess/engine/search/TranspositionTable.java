@@ -0,0 +1,195 @@
+package com.chess.engine.search;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash table of search results keyed by Zobrist key, shared by all search threads without locking.
+ *
+ * Entries live in a single {@code long[]}, two longs each: the key XOR the data, then the data. A reader accepts an
+ * entry only if the two words XOR back to its key, so an entry torn by concurrent writers reads as a miss instead
+ * of as another position's result. Entries are grouped in buckets of {@link #BUCKET_SIZE}; a store replaces the
+ * same position if present, otherwise the entry whose result is the least valuable given its depth and age.
+ *
+ * The data word packs, from the low bits up: the best move (32 bits), the score (16 bits, signed), the depth
+ * (8 bits), the bound type (2 bits) and the search age (6 bits).
+ */
+public final class TranspositionTable {
+
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    public static final int BOUND_NONE = 0;
+    public static final int BOUND_LOWER = 1;
+    public static final int BOUND_UPPER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BUCKET_SIZE = 4;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+    private static final int AGE_CYCLE = 64;
+    private static final int HASHFULL_SAMPLE = 1000;
+
+    private static final int SCORE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final int AGE_SHIFT = 58;
+
+    private long[] table;
+    private int bucketMask;
+    private volatile int age;
+
+    public TranspositionTable(final int sizeMb) {
+        resize(sizeMb);
+    }
+
+    /**
+     * Reallocates the table to the largest power-of-two number of buckets that fits in sizeMb, discarding all
+     * entries. Not safe to call while a search is using the table.
+     */
+    public void resize(final int sizeMb) {
+        if (sizeMb < 1) {
+            throw new RuntimeException("Transposition table size must be at least 1 MB: " + sizeMb);
+        }
+        final long bytes = (long) sizeMb * 1024 * 1024;
+        final long buckets = Long.highestOneBit(Math.max(1, bytes / (BYTES_PER_ENTRY * BUCKET_SIZE)));
+        final long longs = buckets * BUCKET_SIZE * LONGS_PER_ENTRY;
+        if (longs > Integer.MAX_VALUE - 8) {
+            throw new RuntimeException("Transposition table too large: " + sizeMb + " MB");
+        }
+        this.table = new long[(int) longs];
+        this.bucketMask = (int) buckets - 1;
+        this.age = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.age = 0;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches become preferred replacement victims.
+     */
+    public void newSearch() {
+        this.age = (this.age + 1) & (AGE_CYCLE - 1);
+    }
+
+    public int getSizeMb() {
+        return (int) ((long) this.table.length * Long.BYTES / (1024 * 1024));
+    }
+
+    /**
+     * The data word stored for key, or 0 when there is no entry for it. Decode with the static accessors.
+     */
+    public long probe(final long key) {
+        final long[] entries = this.table;
+        final int bucket = bucketIndex(key);
+        for (int i = bucket; i < bucket + BUCKET_SIZE * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+            final long data = entries[i + 1];
+            if ((entries[i] ^ data) == key && data != 0L) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    public void store(final long key,
+                      final int move,
+                      final int score,
+                      final int depth,
+                      final int bound) {
+        final long[] entries = this.table;
+        final int currentAge = this.age;
+        final int bucket = bucketIndex(key);
+        int replace = bucket;
+        int replaceValue = Integer.MAX_VALUE;
+        for (int i = bucket; i < bucket + BUCKET_SIZE * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+            final long data = entries[i + 1];
+            if (data == 0L) {
+                if (replaceValue > Integer.MIN_VALUE) {
+                    replace = i;
+                    replaceValue = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((entries[i] ^ data) == key) {
+                if (bound != BOUND_EXACT && depth < depth(data) - 2 && age(data) == currentAge) {
+                    return;
+                }
+                replace = i;
+                break;
+            }
+            final int value = depth(data) - 8 * ((currentAge - age(data)) & (AGE_CYCLE - 1));
+            if (value < replaceValue) {
+                replace = i;
+                replaceValue = value;
+            }
+        }
+        int storedMove = move;
+        if (storedMove == 0) {
+            final long previous = entries[replace + 1];
+            if ((entries[replace] ^ previous) == key) {
+                storedMove = move(previous);
+            }
+        }
+        final long data = pack(storedMove, score, depth, bound, currentAge);
+        entries[replace] = key ^ data;
+        entries[replace + 1] = data;
+    }
+
+    /**
+     * Permille of sampled entries written by the current search, as reported by UCI {@code info hashfull}.
+     */
+    public int hashfull() {
+        final long[] entries = this.table;
+        final int currentAge = this.age;
+        final int sample = Math.min(HASHFULL_SAMPLE, entries.length / LONGS_PER_ENTRY);
+        int used = 0;
+        for (int entry = 0; entry < sample; entry++) {
+            final long data = entries[entry * LONGS_PER_ENTRY + 1];
+            if (data != 0L && age(data) == currentAge) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int move(final long data) {
+        return (int) data;
+    }
+
+    public static int score(final long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(final long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(final long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    static int age(final long data) {
+        return (int) (data >>> AGE_SHIFT) & (AGE_CYCLE - 1);
+    }
+
+    private static long pack(final int move,
+                             final int score,
+                             final int depth,
+                             final int bound,
+                             final int age) {
+        return (move & 0xFFFFFFFFL) |
+               ((score & 0xFFFFL) << SCORE_SHIFT) |
+               ((long) (depth & 0xFF) << DEPTH_SHIFT) |
+               ((long) (bound & 0x3) << BOUND_SHIFT) |
+               ((long) age << AGE_SHIFT);
+    }
+
+    private int bucketIndex(final long key) {
+        return ((int) (key ^ (key >>> 32)) & this.bucketMask) * BUCKET_SIZE * LONGS_PER_ENTRY;
+    }
+
+    @Override
+    public String toString() {
+        return "TranspositionTable(" + getSizeMb() + " MB, hashfull " + hashfull() + ")";
+    }
+}
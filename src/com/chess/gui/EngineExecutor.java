@@ -0,0 +1,97 @@
+package com.chess.gui;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Runs board computations and searches for {@link Table} on a single background thread, so that the event
+ * dispatch thread only ever paints. Tasks run one at a time in submission order and each hands its result back to
+ * the event dispatch thread, where a task cancelled in the meantime is dropped.
+ */
+final class EngineExecutor {
+
+    private final ExecutorService executor;
+
+    EngineExecutor() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "chess-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs task on the engine thread and then onResult with its result on the event dispatch thread. If the task
+     * throws, onResult is given null, so the caller can let go of the task, and the exception is rethrown there.
+     */
+    <T> EngineTask<T> submit(final Callable<T> task,
+                             final Consumer<T> onResult) {
+        return submit(task, onResult, () -> {});
+    }
+
+    /**
+     * As {@link #submit(Callable, Consumer)}, calling onCancel when the task is cancelled, e.g. to stop a search
+     * that is already running.
+     */
+    <T> EngineTask<T> submit(final Callable<T> task,
+                             final Consumer<T> onResult,
+                             final Runnable onCancel) {
+        final EngineTask<T> engineTask = new EngineTask<>(task, onResult, onCancel);
+        this.executor.execute(engineTask);
+        return engineTask;
+    }
+
+    static final class EngineTask<T> extends FutureTask<T> {
+
+        private final Consumer<T> onResult;
+        private final Runnable onCancel;
+        private volatile boolean discarded;
+
+        private EngineTask(final Callable<T> task,
+                           final Consumer<T> onResult,
+                           final Runnable onCancel) {
+            super(task);
+            this.onResult = onResult;
+            this.onCancel = onCancel;
+        }
+
+        /**
+         * Cancels the task; its result is never delivered, even if it has already been computed.
+         */
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            this.discarded = true;
+            this.onCancel.run();
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            final T result;
+            try {
+                result = get();
+            } catch (final InterruptedException | ExecutionException e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (!this.discarded) {
+                        this.onResult.accept(null);
+                    }
+                    throw new RuntimeException(e);
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (!this.discarded) {
+                    this.onResult.accept(result);
+                }
+            });
+        }
+    }
+}
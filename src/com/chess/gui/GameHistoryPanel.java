@@ -8,11 +8,10 @@ import javax.swing.JPanel;
 import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 
-import com.chess.engine.board.Board;
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Move;
-import com.chess.gui.Table.MoveLog;
 
 class GameHistoryPanel extends JPanel {
 
@@ -32,45 +31,22 @@ class GameHistoryPanel extends JPanel {
         this.setVisible(true);
     }
 
-    void redo(final Board board,
-              final MoveLog moveHistory) {
-        int currentRow = 0;
-        this.model.clear();
-        for (final Move move : moveHistory.getMoves()) {
-            final String moveText = move.toString();
-            if (move.getMovedPiece().getPieceAllegiance().isWhite()) {
-                this.model.setValueAt(moveText, currentRow, 0);
-            }
-            else if (move.getMovedPiece().getPieceAllegiance().isBlack()) {
-                this.model.setValueAt(moveText, currentRow, 1);
-                currentRow++;
-            }
-        }
-
-        if(!moveHistory.getMoves().isEmpty()) {
-            final Move lastMove = moveHistory.getMoves().get(moveHistory.size() - 1);
-            final String moveText = lastMove.toString();
-
-            if (lastMove.getMovedPiece().getPieceAllegiance().isWhite()) {
-                this.model.setValueAt(moveText + calculateCheckAndCheckMateHash(board), currentRow, 0);
-            }
-            else if (lastMove.getMovedPiece().getPieceAllegiance().isBlack()) {
-                this.model.setValueAt(moveText + calculateCheckAndCheckMateHash(board), currentRow - 1, 1);
-            }
-        }
-
+    /**
+     * Appends a move to the history, given its notation as computed when it was made.
+     */
+    void addMove(final Move move,
+                 final String notation) {
+        this.model.addMove(move.getMovedPiece().getPieceAllegiance(), notation);
         final JScrollBar vertical = scrollPane.getVerticalScrollBar();
         vertical.setValue(vertical.getMaximum());
-        validate();
     }
 
-    private static String calculateCheckAndCheckMateHash(final Board board) {
-        if(board.currentPlayer().isInCheckMate()) {
-            return "#";
-        } else if(board.currentPlayer().isInCheck()) {
-            return "+";
-        }
-        return "";
+    void removeLastMove() {
+        this.model.removeLastMove();
+    }
+
+    void clear() {
+        this.model.clear();
     }
 
     private static class Row {
@@ -99,7 +75,7 @@ class GameHistoryPanel extends JPanel {
 
     }
 
-    private static class DataModel extends DefaultTableModel {
+    private static class DataModel extends AbstractTableModel {
 
         private final List<Row> values;
         private static final String[] NAMES = {"White", "Black"};
@@ -109,15 +85,52 @@ class GameHistoryPanel extends JPanel {
         }
 
         public void clear() {
-            this.values.clear();
-            setRowCount(0);
+            final int rowCount = this.values.size();
+            if (rowCount > 0) {
+                this.values.clear();
+                fireTableRowsDeleted(0, rowCount - 1);
+            }
+        }
+
+        /**
+         * A white move starts a new row; a black move completes the last row, or starts one of its own when it is
+         * the first move of the history.
+         */
+        void addMove(final Alliance alliance,
+                     final String notation) {
+            final int lastRow = this.values.size() - 1;
+            if (alliance.isBlack() && lastRow >= 0 && this.values.get(lastRow).getBlackMove() == null) {
+                this.values.get(lastRow).setBlackMove(notation);
+                fireTableCellUpdated(lastRow, 1);
+                return;
+            }
+            final Row row = new Row();
+            if (alliance.isWhite()) {
+                row.setWhiteMove(notation);
+            } else {
+                row.setBlackMove(notation);
+            }
+            this.values.add(row);
+            fireTableRowsInserted(lastRow + 1, lastRow + 1);
+        }
+
+        void removeLastMove() {
+            final int lastRow = this.values.size() - 1;
+            if (lastRow < 0) {
+                return;
+            }
+            final Row row = this.values.get(lastRow);
+            if (row.getWhiteMove() != null && row.getBlackMove() != null) {
+                row.setBlackMove(null);
+                fireTableCellUpdated(lastRow, 1);
+            } else {
+                this.values.remove(lastRow);
+                fireTableRowsDeleted(lastRow, lastRow);
+            }
         }
 
         @Override
         public int getRowCount() {
-            if(this.values == null) {
-                return 0;
-            }
             return this.values.size();
         }
 
@@ -137,26 +150,6 @@ class GameHistoryPanel extends JPanel {
             return null;
         }
 
-        @Override
-        public void setValueAt(final Object aValue,
-                               final int row,
-                               final int col) {
-            final Row currentRow;
-            if(this.values.size() <= row) {
-                currentRow = new Row();
-                this.values.add(currentRow);
-            } else {
-                currentRow = this.values.get(row);
-            }
-            if(col == 0) {
-                currentRow.setWhiteMove((String) aValue);
-                fireTableRowsInserted(row, row);
-            } else  if(col == 1) {
-                currentRow.setBlackMove((String)aValue);
-                fireTableCellUpdated(row, col);
-            }
-        }
-
         @Override
         public Class<?> getColumnClass(final int col) {
             return Move.class;
@@ -1,5 +1,9 @@
 package com.chess.gui;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.player.Player;
+import com.chess.gui.Table.PlayerType;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -7,11 +11,22 @@ import java.awt.event.ActionListener;
 
 public class GameSetup extends JDialog {
 
+    private PlayerType whitePlayerType;
+    private PlayerType blackPlayerType;
+    private final JSpinner searchDepthSpinner;
+    private final JSpinner moveTimeSpinner;
+    private final JSpinner searchThreadsSpinner;
+
+    private static final String HUMAN_TEXT = "Human";
+    private static final String COMPUTER_TEXT = "Computer";
 
     GameSetup(final JFrame frame,
               final boolean modal) {
         super(frame, modal);
 
+        this.whitePlayerType = PlayerType.HUMAN;
+        this.blackPlayerType = PlayerType.HUMAN;
+
         final JPanel myPanel = new JPanel(new GridLayout(0, 1));
 
         JLabel title = new JLabel("Game Options");
@@ -21,6 +36,31 @@ public class GameSetup extends JDialog {
         getContentPane().add(myPanel);
         myPanel.add(title);
         myPanel.add(new JSeparator());
+
+        final JRadioButton whiteHumanButton = new JRadioButton(HUMAN_TEXT, true);
+        final JRadioButton whiteComputerButton = new JRadioButton(COMPUTER_TEXT);
+        final ButtonGroup whiteGroup = new ButtonGroup();
+        whiteGroup.add(whiteHumanButton);
+        whiteGroup.add(whiteComputerButton);
+        myPanel.add(new JLabel("White"));
+        myPanel.add(whiteHumanButton);
+        myPanel.add(whiteComputerButton);
+
+        final JRadioButton blackHumanButton = new JRadioButton(HUMAN_TEXT, true);
+        final JRadioButton blackComputerButton = new JRadioButton(COMPUTER_TEXT);
+        final ButtonGroup blackGroup = new ButtonGroup();
+        blackGroup.add(blackHumanButton);
+        blackGroup.add(blackComputerButton);
+        myPanel.add(new JLabel("Black"));
+        myPanel.add(blackHumanButton);
+        myPanel.add(blackComputerButton);
+        myPanel.add(new JSeparator());
+
+        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 1, 64, 1));
+        this.moveTimeSpinner = addLabeledSpinner(myPanel, "Seconds per Move", new SpinnerNumberModel(5, 1, 600, 1));
+        final int processors = Runtime.getRuntime().availableProcessors();
+        this.searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads",
+                new SpinnerNumberModel(processors, 1, Math.max(processors, 256), 1));
         myPanel.add(new JSeparator());
 
         final JButton cancelButton = new JButton("Cancel");
@@ -28,6 +68,8 @@ public class GameSetup extends JDialog {
 
         okButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
+                whitePlayerType = whiteComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
+                blackPlayerType = blackComputerButton.isSelected() ? PlayerType.COMPUTER : PlayerType.HUMAN;
                 GameSetup.this.setVisible(false);
 
                 Table.get().setupUpdate(Table.get().getGameSetup());
@@ -50,4 +92,47 @@ public class GameSetup extends JDialog {
         pack();
         setVisible(false);
     }
-}
\ No newline at end of file
+
+    void promptUser() {
+        setVisible(true);
+        repaint();
+    }
+
+    boolean isAIPlayer(final Player player) {
+        if (player.getAlliance() == Alliance.WHITE) {
+            return getWhitePlayerType() == PlayerType.COMPUTER;
+        }
+        return getBlackPlayerType() == PlayerType.COMPUTER;
+    }
+
+    PlayerType getWhitePlayerType() {
+        return this.whitePlayerType;
+    }
+
+    PlayerType getBlackPlayerType() {
+        return this.blackPlayerType;
+    }
+
+    int getSearchDepth() {
+        return (Integer) this.searchDepthSpinner.getValue();
+    }
+
+    long getMoveTimeMillis() {
+        return (Integer) this.moveTimeSpinner.getValue() * 1000L;
+    }
+
+    int getSearchThreads() {
+        return (Integer) this.searchThreadsSpinner.getValue();
+    }
+
+    private static JSpinner addLabeledSpinner(final Container container,
+                                              final String label,
+                                              final SpinnerModel model) {
+        final JLabel l = new JLabel(label);
+        container.add(l);
+        final JSpinner spinner = new JSpinner(model);
+        l.setLabelFor(spinner);
+        container.add(spinner);
+        return spinner;
+    }
+}
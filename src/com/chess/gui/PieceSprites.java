@@ -0,0 +1,126 @@
+package com.chess.gui;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The piece images of one icon set, read once and kept as icons scaled to the tile size, so that redrawing the
+ * board never touches the disk. An image is looked up on the classpath first and then relative to the working
+ * directory; a piece whose image is missing is drawn as its letter instead.
+ *
+ * Used from the event dispatch thread only.
+ */
+final class PieceSprites {
+
+    private static final int NUM_SPRITES = BitBoardUtils.NUM_PIECE_BITBOARDS;
+    private static final double PIECE_TO_TILE_RATIO = 0.9;
+    private static final int DEFAULT_GLYPH_SIZE = 36;
+
+    private final BufferedImage[] images;
+    private final ImageIcon[] icons;
+    private int iconSize;
+
+    PieceSprites(final String iconPath) {
+        this.images = new BufferedImage[NUM_SPRITES];
+        this.icons = new ImageIcon[NUM_SPRITES];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                this.images[BitBoardUtils.pieceIndex(alliance, pieceType)] =
+                        readImage(iconPath + alliance.toString().charAt(0) + pieceType + ".gif");
+            }
+        }
+        this.iconSize = -1;
+    }
+
+    /**
+     * The icon of piece for a tile of tileSize pixels, or at the image's own size if the tile is not laid out yet.
+     * Only the icons of the last size asked for are kept, so a board should draw all its pieces at one size.
+     */
+    ImageIcon getIcon(final Piece piece,
+                      final int tileSize) {
+        final int size = tileSize > 0 ? (int) (tileSize * PIECE_TO_TILE_RATIO) : 0;
+        if (size != this.iconSize) {
+            for (int i = 0; i < NUM_SPRITES; i++) {
+                this.icons[i] = null;
+            }
+            this.iconSize = size;
+        }
+        final int index = BitBoardUtils.pieceIndex(piece.getPieceAllegiance(), piece.getPieceType());
+        ImageIcon icon = this.icons[index];
+        if (icon == null) {
+            icon = new ImageIcon(this.images[index] != null ?
+                    scale(this.images[index], size) : renderGlyph(piece, size));
+            this.icons[index] = icon;
+        }
+        return icon;
+    }
+
+    private static BufferedImage readImage(final String path) {
+        try (final InputStream in = PieceSprites.class.getResourceAsStream("/" + path)) {
+            if (in != null) {
+                return ImageIO.read(in);
+            }
+            final File file = new File(path);
+            return file.isFile() ? ImageIO.read(file) : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private static BufferedImage scale(final BufferedImage image,
+                                       final int size) {
+        if (size <= 0 || (size == image.getWidth() && size == image.getHeight())) {
+            return image;
+        }
+        final BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, size, size, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    /**
+     * The piece letter in its side's colour, outlined in the other so that it shows on both tile colours.
+     */
+    private static BufferedImage renderGlyph(final Piece piece,
+                                             final int size) {
+        final int imageSize = size > 0 ? size : DEFAULT_GLYPH_SIZE;
+        final BufferedImage glyph = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = glyph.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        final Font font = new Font("Arial", Font.BOLD, imageSize * 2 / 3);
+        final GlyphVector vector = font.createGlyphVector(graphics.getFontRenderContext(),
+                piece.getPieceType().toString());
+        final Rectangle2D bounds = vector.getVisualBounds();
+        final Shape outline = vector.getOutline(
+                (float) ((imageSize - bounds.getWidth()) / 2 - bounds.getX()),
+                (float) ((imageSize - bounds.getHeight()) / 2 - bounds.getY()));
+        final boolean white = piece.getPieceAllegiance().isWhite();
+        graphics.setColor(white ? Color.WHITE : Color.BLACK);
+        graphics.fill(outline);
+        graphics.setColor(white ? Color.BLACK : Color.WHITE);
+        graphics.setStroke(new BasicStroke(Math.max(1f, imageSize / (float) DEFAULT_GLYPH_SIZE)));
+        graphics.draw(outline);
+        graphics.dispose();
+        return glyph;
+    }
+}
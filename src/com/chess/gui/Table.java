@@ -5,15 +5,20 @@ import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MoveFactory;
 import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.board.StaticExchange;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.search.IterativeDeepening;
+import com.chess.engine.search.MoveStrategy;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.TaperedEvaluator;
+import com.chess.engine.search.TranspositionTable;
 import com.chess.pgn.FenUtilities;
+import com.chess.pgn.SanUtilities;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
 import java.util.List;
 
@@ -28,32 +33,43 @@ public final class Table {
     private final MoveLog moveLog;
     private final GameSetup gameSetup;
     private final GameEventManager eventManager;
+    private final TranspositionTable transpositionTable;
+    private final TaperedEvaluator evaluator;
+    private final EngineExecutor engineExecutor;
     private Board chessBoard;
+    private GameStatus gameStatus;
+    private long hangingTiles;
+    private EngineExecutor.EngineTask<CompletedMove> thinkTank;
+    private EngineExecutor.EngineTask<CompletedMove> humanMoveTask;
+    private EngineExecutor.EngineTask<BoardState> positionTask;
 
     private Piece sourceTile;
     private Piece humanMovedPiece;
     private BoardDirection boardDirection;
-    private String pieceIconPath;
+    private final PieceSprites pieceSprites;
+    private boolean highlightHangingPieces;
     private Color lightTileColor = Color.decode("#FFFACD");
     private Color darkTileColor = Color.decode("#593E1A");
 
     private static final Dimension OUTER_FRAME_DIMENSION = new Dimension(600, 600);
     private static final Dimension BOARD_PANEL_DIMENSION = new Dimension(400, 350);
-    private static final Dimension TILE_PANEL_DIMENSION = new Dimension(10, 10);
 
     private static final Table INSTANCE = new Table();
 
     private Table() {
         this.eventManager = new GameEventManager();
+        this.transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+        this.evaluator = new TaperedEvaluator();
+        this.engineExecutor = new EngineExecutor();
         this.gameFrame = new JFrame("Chess - Simple PvP");
         final JMenuBar tableMenuBar = new JMenuBar();
         populateMenuBar(tableMenuBar);
         this.gameFrame.setJMenuBar(tableMenuBar);
         this.gameFrame.setLayout(new BorderLayout());
-        this.chessBoard = Board.createStandardBoard();
+        setGameState(BoardState.of(Board.createStandardBoard()));
         this.boardDirection = BoardDirection.NORMAL;
 
-        this.pieceIconPath = "art/simple/";
+        this.pieceSprites = new PieceSprites("art/simple/");
 
         this.gameHistoryPanel = new GameHistoryPanel();
         this.boardPanel = new BoardPanel();
@@ -85,7 +101,6 @@ public final class Table {
     private GameHistoryPanel getGameHistoryPanel() { return this.gameHistoryPanel; }
 
     public void show() {
-        Table.get().getGameHistoryPanel().redo(this.chessBoard, Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
     }
 
@@ -93,25 +108,124 @@ public final class Table {
         event.process(this);
     }
 
-    void handleMoveMade(final Move move, final PlayerType playerType) {
-        this.boardDirection = this.boardDirection.opposite();
+    void handleMoveMade(final Move move, final PlayerType playerType, final GameStatus status) {
+        if (!isComputerInGame()) {
+            this.boardDirection = this.boardDirection.opposite();
+        }
         this.show();
 
-        if (getGameBoard().currentPlayer().isInCheckMate()) {
+        if (status == GameStatus.CHECKMATE) {
             JOptionPane.showMessageDialog(getBoardPanel(), "Game Over: Checkmate!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
         }
-        if (getGameBoard().currentPlayer().isInStaleMate()) {
+        if (status == GameStatus.STALEMATE) {
             JOptionPane.showMessageDialog(getBoardPanel(), "Game Over: Stalemate!", "Game Over", JOptionPane.INFORMATION_MESSAGE);
         }
+        startComputerMoveIfNeeded();
     }
 
-    void handleGameSetupChanged(final GameSetup gameSetup) {}
+    void handleGameSetupChanged(final GameSetup gameSetup) {
+        startComputerMoveIfNeeded();
+    }
 
     void handleNewGame() {
-        undoAllMoves();
-        this.chessBoard = Board.createStandardBoard();
-        this.boardDirection = BoardDirection.NORMAL;
-        this.show();
+        cancelPendingMoves();
+        this.transpositionTable.clear();
+        this.positionTask = this.engineExecutor.submit(() -> BoardState.of(Board.createStandardBoard()), state -> {
+            this.positionTask = null;
+            if (state == null) {
+                this.boardPanel.drawBoard(getGameBoard());
+                startComputerMoveIfNeeded();
+                return;
+            }
+            clearMoveLog();
+            setGameState(state);
+            this.boardDirection = BoardDirection.NORMAL;
+            this.show();
+            startComputerMoveIfNeeded();
+        });
+    }
+
+    private boolean isComputerInGame() {
+        return this.gameSetup.getWhitePlayerType() == PlayerType.COMPUTER ||
+               this.gameSetup.getBlackPlayerType() == PlayerType.COMPUTER;
+    }
+
+    private boolean isComputerThinking() {
+        return this.thinkTank != null;
+    }
+
+    private void startComputerMoveIfNeeded() {
+        if (isComputerThinking() ||
+            this.positionTask != null ||
+            this.gameStatus != GameStatus.IN_PROGRESS ||
+            !this.gameSetup.isAIPlayer(getGameBoard().currentPlayer())) {
+            return;
+        }
+        final MoveStrategy strategy = new IterativeDeepening(new SearchLimits.Builder()
+                .setMaxDepth(this.gameSetup.getSearchDepth())
+                .setMoveTimeMillis(this.gameSetup.getMoveTimeMillis())
+                .build(), this.transpositionTable, this.gameSetup.getSearchThreads(), this.evaluator);
+        final Board board = getGameBoard();
+        this.thinkTank = this.engineExecutor.submit(() -> {
+            final Move bestMove = strategy.execute(board);
+            return bestMove == MoveUtils.NULL_MOVE ? null : CompletedMove.of(board, bestMove);
+        }, completedMove -> {
+            this.thinkTank = null;
+            applyMove(completedMove, PlayerType.COMPUTER);
+        }, strategy::stop);
+    }
+
+    /**
+     * Checks and plays, on the engine thread, a move the human player clicked.
+     */
+    private void submitHumanMove(final int currentCoordinate,
+                                 final int destinationCoordinate) {
+        if (this.humanMoveTask != null) {
+            return;
+        }
+        final Board board = getGameBoard();
+        this.humanMoveTask = this.engineExecutor.submit(() -> CompletedMove.of(board,
+                MoveFactory.createMove(board, currentCoordinate, destinationCoordinate)), completedMove -> {
+            this.humanMoveTask = null;
+            applyMove(completedMove, PlayerType.HUMAN);
+        });
+    }
+
+    /**
+     * Cancels the computer's search, any human move still being checked and any position still being set up,
+     * dropping their results.
+     */
+    private void cancelPendingMoves() {
+        if (this.thinkTank != null) {
+            this.thinkTank.cancel(false);
+            this.thinkTank = null;
+        }
+        if (this.humanMoveTask != null) {
+            this.humanMoveTask.cancel(false);
+            this.humanMoveTask = null;
+        }
+        if (this.positionTask != null) {
+            this.positionTask.cancel(false);
+            this.positionTask = null;
+        }
+    }
+
+    private void applyMove(final CompletedMove completedMove,
+                           final PlayerType playerType) {
+        if (completedMove == null || completedMove.fromBoard != getGameBoard()) {
+            this.boardPanel.drawBoard(getGameBoard());
+            return;
+        }
+        setGameState(completedMove.toState);
+        this.moveLog.addMove(completedMove.move, completedMove.notation);
+        this.gameHistoryPanel.addMove(completedMove.move, completedMove.notation);
+        moveMadeUpdate(playerType, completedMove.move, completedMove.toState.status);
+    }
+
+    private void setGameState(final BoardState state) {
+        this.chessBoard = state.board;
+        this.gameStatus = state.status;
+        this.hangingTiles = state.hangingTiles;
     }
 
     private void populateMenuBar(final JMenuBar tableMenuBar) {
@@ -137,9 +251,26 @@ public final class Table {
         openFEN.addActionListener(_ -> {
             String fenString = JOptionPane.showInputDialog("Input FEN");
             if(fenString != null) {
-                undoAllMoves();
-                this.chessBoard = FenUtilities.createGameFromFEN(fenString);
-                Table.get().getBoardPanel().drawBoard(this.chessBoard);
+                cancelPendingMoves();
+                this.positionTask = this.engineExecutor.submit(() -> {
+                    try {
+                        return BoardState.of(FenUtilities.createGameFromFEN(fenString));
+                    } catch (final RuntimeException e) {
+                        return null;
+                    }
+                }, state -> {
+                    this.positionTask = null;
+                    if (state == null) {
+                        JOptionPane.showMessageDialog(getBoardPanel(), "Invalid FEN: " + fenString, "Load FEN",
+                                JOptionPane.ERROR_MESSAGE);
+                        startComputerMoveIfNeeded();
+                        return;
+                    }
+                    clearMoveLog();
+                    setGameState(state);
+                    this.show();
+                    startComputerMoveIfNeeded();
+                });
             }
         });
         filesMenu.add(openFEN);
@@ -166,6 +297,12 @@ public final class Table {
         undoMoveMenuItem.addActionListener(_ -> undoLastMove());
         optionsMenu.add(undoMoveMenuItem);
 
+        optionsMenu.addSeparator();
+
+        final JMenuItem setupGameMenuItem = new JMenuItem("Setup Game", KeyEvent.VK_S);
+        setupGameMenuItem.addActionListener(_ -> Table.get().getGameSetup().promptUser());
+        optionsMenu.add(setupGameMenuItem);
+
         return optionsMenu;
     }
 
@@ -199,205 +336,332 @@ public final class Table {
         preferencesMenu.add(flipBoardMenuItem);
 
         preferencesMenu.addSeparator();
+        final JCheckBoxMenuItem hangingPiecesMenuItem = new JCheckBoxMenuItem("Highlight Hanging Pieces", false);
+        hangingPiecesMenuItem.addActionListener(_ -> {
+            this.highlightHangingPieces = hangingPiecesMenuItem.isSelected();
+            this.boardPanel.drawBoard(this.chessBoard);
+        });
+        preferencesMenu.add(hangingPiecesMenuItem);
         return preferencesMenu;
     }
 
-    private void undoAllMoves() {
-        for(int i = Table.get().getMoveLog().size() - 1; i >= 0; i--) {
-            final Move lastMove = Table.get().getMoveLog().removeMove(Table.get().getMoveLog().size() - 1);
-            this.chessBoard = this.chessBoard.currentPlayer().unMakeMove(lastMove).getToBoard();
-        }
-        Table.get().getMoveLog().clear();
-        this.show();
+    private void clearMoveLog() {
+        this.moveLog.clear();
+        this.gameHistoryPanel.clear();
     }
 
+    /**
+     * Takes back the last move, rebuilding the previous position on the engine thread. Further clicks are ignored
+     * until it is shown.
+     */
     private void undoLastMove() {
-        final MoveLog log = Table.get().getMoveLog();
-        if(!log.isEmpty()) {
-            final Move lastMove = Table.get().getMoveLog().removeMove(Table.get().getMoveLog().size() - 1);
-            this.chessBoard = this.chessBoard.currentPlayer().unMakeMove(lastMove).getToBoard();
-            this.boardDirection = this.boardDirection.opposite();
-            this.show();
+        if (this.positionTask != null || this.moveLog.isEmpty()) {
+            return;
         }
+        cancelPendingMoves();
+        final Board board = getGameBoard();
+        final Move lastMove = this.moveLog.getMoves().get(this.moveLog.size() - 1);
+        this.positionTask = this.engineExecutor.submit(
+                () -> BoardState.of(board.currentPlayer().unMakeMove(lastMove).getToBoard()), state -> {
+            this.positionTask = null;
+            if (board != getGameBoard()) {
+                return;
+            }
+            if (state == null) {
+                this.boardPanel.drawBoard(getGameBoard());
+                startComputerMoveIfNeeded();
+                return;
+            }
+            this.moveLog.removeMove(this.moveLog.size() - 1);
+            this.gameHistoryPanel.removeLastMove();
+            setGameState(state);
+            if (!isComputerInGame()) {
+                this.boardDirection = this.boardDirection.opposite();
+            }
+            this.show();
+            startComputerMoveIfNeeded();
+        });
     }
 
-    public void moveMadeUpdate(final PlayerType playerType, final Move move) {
-        this.eventManager.publishGameEvent(new MoveMadeEvent(move, playerType));
+    public void moveMadeUpdate(final PlayerType playerType, final Move move, final GameStatus status) {
+        this.eventManager.publishGameEvent(new MoveMadeEvent(move, playerType, status));
     }
 
     public void setupUpdate(final GameSetup gameSetup) {
         this.eventManager.publishGameEvent(new GameSetupChangedEvent(gameSetup));
     }
 
-    public enum PlayerType { HUMAN }
+    public enum PlayerType { HUMAN, COMPUTER }
+
+    public enum GameStatus {
+        IN_PROGRESS, CHECKMATE, STALEMATE;
+
+        static GameStatus of(final Board board) {
+            if (board.currentPlayer().isInCheckMate()) {
+                return CHECKMATE;
+            }
+            return board.currentPlayer().isInStaleMate() ? STALEMATE : IN_PROGRESS;
+        }
+    }
+
+    /**
+     * A position with everything the event dispatch thread needs to show it, computed on the engine thread: the
+     * game status, which also generates and caches the legal moves before the board is drawn, and the pieces to
+     * highlight as hanging.
+     */
+    private static final class BoardState {
+        private final Board board;
+        private final GameStatus status;
+        private final long hangingTiles;
+
+        private BoardState(final Board board) {
+            this.board = board;
+            this.status = GameStatus.of(board);
+            long hanging = 0L;
+            for (int tileId = 0; tileId < BoardUtils.NUM_TILES; tileId++) {
+                if (StaticExchange.isHanging(board, tileId)) {
+                    hanging |= 1L << tileId;
+                }
+            }
+            this.hangingTiles = hanging;
+        }
+
+        static BoardState of(final Board board) {
+            return new BoardState(board);
+        }
+    }
+
+    /**
+     * A move played on the engine thread, with the position it leads to and the move's notation, which the move
+     * log keeps so that the history never recomputes it.
+     */
+    private static final class CompletedMove {
+        private final Board fromBoard;
+        private final Move move;
+        private final BoardState toState;
+        private final String notation;
+
+        private CompletedMove(final Board fromBoard, final Move move, final Board toBoard) {
+            this.fromBoard = fromBoard;
+            this.move = move;
+            this.toState = BoardState.of(toBoard);
+            this.notation = SanUtilities.toSan(fromBoard, move);
+        }
+
+        /**
+         * The move played on board, or null when it is not legal there.
+         */
+        static CompletedMove of(final Board board, final Move move) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                return null;
+            }
+            return new CompletedMove(board, move, transition.getToBoard());
+        }
+    }
 
+    /**
+     * The board, painted square by square. Drawing a new position repaints only the squares whose piece or border
+     * changed; flipping the board or changing colours repaints it all, without any relayout.
+     */
     private class BoardPanel extends JPanel {
-        final List<TilePanel> boardTiles;
+        private Board paintedBoard;
+        private BoardDirection paintedDirection;
+        private int paintedSelection;
+        private long paintedHanging;
+
         BoardPanel() {
-            super(new GridLayout(8,8));
-            this.boardTiles = new ArrayList<>();
-            for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-                final TilePanel tilePanel = new TilePanel(this, i);
-                this.boardTiles.add(tilePanel);
-                add(tilePanel);
-            }
+            this.paintedSelection = -1;
             setPreferredSize(BOARD_PANEL_DIMENSION);
             setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
             setBackground(Color.decode("#8B4726"));
-            validate();
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(final MouseEvent event) {
+                    final int tileId = tileAt(event.getX(), event.getY());
+                    if (tileId >= 0) {
+                        tileClicked(tileId, event);
+                    }
+                }
+            });
         }
 
         void drawBoard(final Board board) {
-            removeAll();
-            for (final TilePanel boardTile : boardDirection.traverse(boardTiles)) {
-                boardTile.drawTile(board);
-                add(boardTile);
+            final int selection = selectedTile(board);
+            final long hanging = highlightHangingPieces && board == chessBoard ? hangingTiles : 0L;
+            if (this.paintedBoard == null || this.paintedDirection != boardDirection) {
+                repaint();
+            } else {
+                for (int tileId = 0; tileId < BoardUtils.NUM_TILES; tileId++) {
+                    if (board.getPiece(tileId) != this.paintedBoard.getPiece(tileId) ||
+                        (tileId == selection) != (tileId == this.paintedSelection) ||
+                        ((hanging ^ this.paintedHanging) & (1L << tileId)) != 0) {
+                        repaintTile(tileId);
+                    }
+                }
             }
-            validate();
-            repaint();
+            this.paintedBoard = board;
+            this.paintedDirection = boardDirection;
+            this.paintedSelection = selection;
+            this.paintedHanging = hanging;
         }
 
         void setTileDarkColor(final Board board, final Color darkColor) {
-            for (final TilePanel boardTile : this.boardTiles) boardTile.setDarkTileColor(darkColor);
+            darkTileColor = darkColor;
+            repaint();
             drawBoard(board);
         }
         void setTileLightColor(final Board board, final Color lightColor) {
-            for (final TilePanel boardTile : this.boardTiles) boardTile.setLightTileColor(lightColor);
+            lightTileColor = lightColor;
+            repaint();
             drawBoard(board);
         }
-    }
 
-    enum BoardDirection {
-        NORMAL {
-            @Override List<TilePanel> traverse(final List<TilePanel> boardTiles) { return boardTiles; }
-            @Override BoardDirection opposite() { return FLIPPED; }
-        },
-        FLIPPED {
-            @Override List<TilePanel> traverse(final List<TilePanel> boardTiles) {
-                final List<TilePanel> reversed = new ArrayList<>(boardTiles);
-                Collections.reverse(reversed);
-                return reversed;
+        @Override
+        protected void paintComponent(final Graphics graphics) {
+            super.paintComponent(graphics);
+            if (this.paintedBoard == null) {
+                return;
             }
-            @Override BoardDirection opposite() { return NORMAL; }
-        };
-        abstract List<TilePanel> traverse(final List<TilePanel> boardTiles);
-        abstract BoardDirection opposite();
-    }
-
-    public static class MoveLog {
-        private final List<Move> moves;
-        MoveLog() { this.moves = new ArrayList<>(); }
-        public boolean isEmpty() { return this.moves.isEmpty(); }
-        public List<Move> getMoves() { return this.moves; }
-        void addMove(final Move move) { this.moves.add(move); }
-        public int size() { return this.moves.size(); }
-        void clear() { this.moves.clear(); }
-        Move removeMove(final int index) { return this.moves.remove(index); }
-    }
-
-    private class TilePanel extends JPanel {
-        private final int tileId;
-        TilePanel(final BoardPanel boardPanel, final int tileId) {
-            super(new GridBagLayout());
-            this.tileId = tileId;
-            setPreferredSize(TILE_PANEL_DIMENSION);
-            assignTileColor();
-            assignTilePieceIcon(chessBoard);
-            highlightTileBorder(chessBoard);
-            addMouseListener(new MouseListener() {
-                @Override
-                public void mouseClicked(final MouseEvent event) {
-                    if(BoardUtils.isEndGame(Table.get().getGameBoard())) return;
-                    if (isRightMouseButton(event)) {
-                        sourceTile = null;
-                        humanMovedPiece = null;
-                    } else if (isLeftMouseButton(event)) {
-                        if (sourceTile == null) {
-                            sourceTile = chessBoard.getPiece(tileId);
-                            humanMovedPiece = sourceTile;
-                            if (humanMovedPiece == null || humanMovedPiece.getPieceAllegiance() != chessBoard.currentPlayer().getAlliance()) {
-                                sourceTile = null;
-                                humanMovedPiece = null;
-                            }
-                        } else {
-                            final Move move = MoveFactory.createMove(chessBoard, sourceTile.getPiecePosition(), tileId);
-                            final MoveTransition transition = chessBoard.currentPlayer().makeMove(move);
-                            if (transition.getMoveStatus().isDone()) {
-                                chessBoard = transition.getToBoard();
-                                moveLog.addMove(move);
-                                invokeLater(() -> {
-                                    Table.get().moveMadeUpdate(PlayerType.HUMAN, moveLog.getMoves().get(moveLog.size() - 1));
-                                });
-                            }
-                            sourceTile = null;
-                            humanMovedPiece = null;
-                        }
-                    }
-                    invokeLater(() -> boardPanel.drawBoard(chessBoard));
+            final Rectangle clip = graphics.getClipBounds();
+            final int spriteSize = spriteSize();
+            for (int tileId = 0; tileId < BoardUtils.NUM_TILES; tileId++) {
+                final Rectangle bounds = tileBounds(tileId);
+                if (clip == null || clip.intersects(bounds)) {
+                    paintTile(graphics, tileId, bounds, spriteSize);
                 }
-                @Override public void mouseExited(final MouseEvent e) {}
-                @Override public void mouseEntered(final MouseEvent e) {}
-                @Override public void mouseReleased(final MouseEvent e) {}
-                @Override public void mousePressed(final MouseEvent e) {}
-            });
-            validate();
+            }
         }
 
-        void drawTile(final Board board) {
-            assignTileColor();
-            assignTilePieceIcon(board);
-            highlightTileBorder(board);
-            validate();
-            repaint();
+        /**
+         * The size of the smallest tile. Tiles differ by a pixel when the board is not a multiple of eight wide, and
+         * every piece is drawn at this one size so that the sprite cache keeps a single set of icons.
+         */
+        private int spriteSize() {
+            final Insets insets = getInsets();
+            return Math.min(getWidth() - insets.left - insets.right,
+                            getHeight() - insets.top - insets.bottom) / BoardUtils.NUM_TILES_PER_ROW;
         }
-        void setLightTileColor(final Color color) { lightTileColor = color; }
-        void setDarkTileColor(final Color color) { darkTileColor = color; }
 
-        private void highlightTileBorder(final Board board) {
-            if(humanMovedPiece != null && humanMovedPiece.getPieceAllegiance() == board.currentPlayer().getAlliance() && humanMovedPiece.getPiecePosition() == this.tileId) {
-                setBorder(BorderFactory.createLineBorder(Color.cyan));
+        private void paintTile(final Graphics graphics, final int tileId, final Rectangle bounds, final int spriteSize) {
+            graphics.setColor(((tileId >>> 3) + (tileId & 7)) % 2 == 0 ? lightTileColor : darkTileColor);
+            graphics.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+            final Piece piece = this.paintedBoard.getPiece(tileId);
+            if (piece != null) {
+                final Icon icon = pieceSprites.getIcon(piece, spriteSize);
+                icon.paintIcon(this, graphics, bounds.x + (bounds.width - icon.getIconWidth()) / 2,
+                        bounds.y + (bounds.height - icon.getIconHeight()) / 2);
+            }
+            if (tileId == this.paintedSelection) {
+                graphics.setColor(Color.cyan);
+            } else if ((this.paintedHanging & (1L << tileId)) != 0) {
+                graphics.setColor(Color.red);
             } else {
-                setBorder(BorderFactory.createLineBorder(Color.GRAY));
+                graphics.setColor(Color.GRAY);
             }
+            graphics.drawRect(bounds.x, bounds.y, bounds.width - 1, bounds.height - 1);
+        }
+
+        private void repaintTile(final int tileId) {
+            final Rectangle bounds = tileBounds(tileId);
+            repaint(bounds.x, bounds.y, bounds.width, bounds.height);
         }
 
-        private Collection<Move> pieceLegalMoves(final Board board) {
-            if(humanMovedPiece != null && humanMovedPiece.getPieceAllegiance() == board.currentPlayer().getAlliance()) {
-                return humanMovedPiece.calculateLegalMoves(board);
+        /**
+         * The square of tileId on screen; the squares share the space inside the border like a grid layout would.
+         */
+        private Rectangle tileBounds(final int tileId) {
+            final int position = this.paintedDirection.translate(tileId);
+            final Insets insets = getInsets();
+            final int width = getWidth() - insets.left - insets.right;
+            final int height = getHeight() - insets.top - insets.bottom;
+            final int column = position % BoardUtils.NUM_TILES_PER_ROW;
+            final int row = position / BoardUtils.NUM_TILES_PER_ROW;
+            final int x = insets.left + column * width / BoardUtils.NUM_TILES_PER_ROW;
+            final int y = insets.top + row * height / BoardUtils.NUM_TILES_PER_ROW;
+            return new Rectangle(x, y,
+                    insets.left + (column + 1) * width / BoardUtils.NUM_TILES_PER_ROW - x,
+                    insets.top + (row + 1) * height / BoardUtils.NUM_TILES_PER_ROW - y);
+        }
+
+        /**
+         * The tile under a point, or -1 outside the squares.
+         */
+        private int tileAt(final int x, final int y) {
+            if (this.paintedDirection == null) {
+                return -1;
             }
-            return Collections.emptyList();
+            final Insets insets = getInsets();
+            final int width = getWidth() - insets.left - insets.right;
+            final int height = getHeight() - insets.top - insets.bottom;
+            if (x < insets.left || y < insets.top || x >= insets.left + width || y >= insets.top + height) {
+                return -1;
+            }
+            final int column = (x - insets.left) * BoardUtils.NUM_TILES_PER_ROW / width;
+            final int row = (y - insets.top) * BoardUtils.NUM_TILES_PER_ROW / height;
+            return this.paintedDirection.translate(row * BoardUtils.NUM_TILES_PER_ROW + column);
         }
 
-        private void assignTilePieceIcon(final Board board) {
-            this.removeAll();
-            if (board.getPiece(this.tileId) != null) {
-                String imageFilename = pieceIconPath +
-                        board.getPiece(this.tileId).getPieceAllegiance().toString().charAt(0) +
-                        board.getPiece(this.tileId).toString() + ".gif";
-                File imageFile = new File(imageFilename);
-                System.out.println("Đang tìm file tại: " + imageFile.getAbsolutePath());
-                try {
-                    if (imageFile.exists()) {
-                        add(new JLabel(new ImageIcon(ImageIO.read(imageFile))));
-                    } else {
-                        JLabel label = new JLabel(board.getPiece(this.tileId).toString());
-                        label.setFont(new Font("Arial", Font.BOLD, 20));
-                        label.setForeground(board.getPiece(this.tileId).getPieceAllegiance().toString().equals("WHITE") ? Color.WHITE : Color.BLACK);
-                        add(label);
+        private void tileClicked(final int tileId, final MouseEvent event) {
+            if (gameStatus != GameStatus.IN_PROGRESS || positionTask != null) return;
+            if(Table.get().getGameSetup().isAIPlayer(chessBoard.currentPlayer())) return;
+            if (isRightMouseButton(event)) {
+                sourceTile = null;
+                humanMovedPiece = null;
+            } else if (isLeftMouseButton(event)) {
+                if (sourceTile == null) {
+                    sourceTile = chessBoard.getPiece(tileId);
+                    humanMovedPiece = sourceTile;
+                    if (humanMovedPiece == null || humanMovedPiece.getPieceAllegiance() != chessBoard.currentPlayer().getAlliance()) {
+                        sourceTile = null;
+                        humanMovedPiece = null;
                     }
-                } catch (final IOException e) { e.printStackTrace(); }
+                } else {
+                    submitHumanMove(sourceTile.getPiecePosition(), tileId);
+                    sourceTile = null;
+                    humanMovedPiece = null;
+                }
             }
+            invokeLater(() -> drawBoard(chessBoard));
         }
 
-        private void assignTileColor() {
-            if (BoardUtils.FIRST_ROW.get(this.tileId) || BoardUtils.THIRD_ROW.get(this.tileId) || BoardUtils.FIFTH_ROW.get(this.tileId) || BoardUtils.SEVENTH_ROW.get(this.tileId)) {
-                setBackground(this.tileId % 2 == 0 ? lightTileColor : darkTileColor);
-            } else if(BoardUtils.SECOND_ROW.get(this.tileId) || BoardUtils.FOURTH_ROW.get(this.tileId) || BoardUtils.SIXTH_ROW.get(this.tileId)  || BoardUtils.EIGHTH_ROW.get(this.tileId)) {
-                setBackground(this.tileId % 2 != 0 ? lightTileColor : darkTileColor);
+        private int selectedTile(final Board board) {
+            if (humanMovedPiece != null && humanMovedPiece.getPieceAllegiance() == board.currentPlayer().getAlliance()) {
+                return humanMovedPiece.getPiecePosition();
             }
+            return -1;
         }
     }
 
+    enum BoardDirection {
+        NORMAL {
+            @Override int translate(final int index) { return index; }
+            @Override BoardDirection opposite() { return FLIPPED; }
+        },
+        FLIPPED {
+            @Override int translate(final int index) { return BoardUtils.NUM_TILES - 1 - index; }
+            @Override BoardDirection opposite() { return NORMAL; }
+        };
+        /**
+         * The position on screen of a tile, counting from the top left; also the tile shown at a position.
+         */
+        abstract int translate(final int index);
+        abstract BoardDirection opposite();
+    }
+
+    public static class MoveLog {
+        private final List<Move> moves;
+        private final List<String> notations;
+        MoveLog() { this.moves = new ArrayList<>(); this.notations = new ArrayList<>(); }
+        public boolean isEmpty() { return this.moves.isEmpty(); }
+        public List<Move> getMoves() { return this.moves; }
+        public String getNotation(final int index) { return this.notations.get(index); }
+        void addMove(final Move move, final String notation) { this.moves.add(move); this.notations.add(notation); }
+        public int size() { return this.moves.size(); }
+        void clear() { this.moves.clear(); this.notations.clear(); }
+        Move removeMove(final int index) { this.notations.remove(index); return this.moves.remove(index); }
+    }
+
     private static class GameEventManager {
         @FunctionalInterface interface GameEventListener { void onGameEvent(GameEvent event); }
         private final List<GameEventListener> gameListeners = new ArrayList<>();
@@ -415,8 +679,9 @@ public final class Table {
     private static class MoveMadeEvent extends GameEvent {
         private final Move move;
         private final PlayerType playerType;
-        MoveMadeEvent(Move move, PlayerType playerType) { super(Type.MOVE_MADE); this.move = move; this.playerType = playerType; }
-        @Override public void process(Table table) { table.handleMoveMade(move, playerType); }
+        private final GameStatus status;
+        MoveMadeEvent(Move move, PlayerType playerType, GameStatus status) { super(Type.MOVE_MADE); this.move = move; this.playerType = playerType; this.status = status; }
+        @Override public void process(Table table) { table.handleMoveMade(move, playerType, status); }
     }
 
     private static class GameSetupChangedEvent extends GameEvent {
@@ -0,0 +1,434 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.KingSideCastleMove;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.board.Move.QueenSideCastleMove;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Writes and reads moves in standard algebraic notation (SAN). Disambiguation and the check and mate suffixes are
+ * worked out from attack sets on the piece bitboards, with the position after the move applied to a copy of the
+ * bitboards rather than built as a new {@link Board}; the only move generation is the legal move index of the
+ * board the move is made on, which the parser uses to resolve a move.
+ */
+public class SanUtilities {
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    private static final int NUM_COLUMNS = 8;
+    private static final int KING_SIDE_ROOK_COLUMN = 7;
+    private static final int QUEEN_SIDE_ROOK_COLUMN = 0;
+
+    private SanUtilities() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    /**
+     * The SAN of move, a legal move on board, including a trailing + or # when it gives check or mate.
+     */
+    public static String toSan(final Board board,
+                               final Move move) {
+        final StringBuilder san = new StringBuilder(8);
+        final Piece movedPiece = move.getMovedPiece();
+        final PieceType pieceType = movedPiece.getPieceType();
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        if (move instanceof KingSideCastleMove) {
+            san.append("O-O");
+        } else if (move instanceof QueenSideCastleMove) {
+            san.append("O-O-O");
+        } else if (pieceType == PieceType.PAWN) {
+            if (move.isAttack()) {
+                san.append(fileOf(from)).append('x');
+            }
+            san.append(squareName(to));
+            if (move instanceof PawnPromotion) {
+                san.append('=').append(((PawnPromotion) move).getPromotionPiece().getPieceType());
+            }
+        } else {
+            san.append(pieceType);
+            appendDisambiguation(san, board, movedPiece, from, to);
+            if (move.isAttack()) {
+                san.append('x');
+            }
+            san.append(squareName(to));
+        }
+        san.append(checkSuffix(board, move));
+        return san.toString();
+    }
+
+    /**
+     * The legal move on board written as san, or {@link MoveUtils#NULL_MOVE} if san is malformed, ambiguous or names
+     * no legal move. Check, mate and annotation suffixes are ignored, and castling may be written with zeros.
+     */
+    public static Move parseSan(final Board board,
+                                final String san) {
+        final String text = stripSuffixes(san.trim());
+        final Alliance alliance = board.currentPlayer().getAlliance();
+        final int kingPosition = board.getKingPosition(alliance);
+        if (text.equals("O-O") || text.equals("0-0")) {
+            return board.currentPlayer().getLegalMove(kingPosition, kingPosition + 2);
+        }
+        if (text.equals("O-O-O") || text.equals("0-0-0")) {
+            return board.currentPlayer().getLegalMove(kingPosition, kingPosition - 2);
+        }
+        int end = text.length();
+        PieceType promotionType = null;
+        if (end >= 2 && text.charAt(end - 2) == '=') {
+            promotionType = pieceTypeOf(text.charAt(end - 1));
+            if (promotionType == null) {
+                return MoveUtils.NULL_MOVE;
+            }
+            end -= 2;
+        }
+        if (end < 2) {
+            return MoveUtils.NULL_MOVE;
+        }
+        final int to = squareOf(text.charAt(end - 2), text.charAt(end - 1));
+        if (to < 0) {
+            return MoveUtils.NULL_MOVE;
+        }
+        int start = 0;
+        PieceType pieceType = PieceType.PAWN;
+        if (Character.isUpperCase(text.charAt(0))) {
+            pieceType = pieceTypeOf(text.charAt(0));
+            if (pieceType == null || pieceType == PieceType.PAWN) {
+                return MoveUtils.NULL_MOVE;
+            }
+            start = 1;
+        }
+        int qualifierEnd = end - 2;
+        final boolean capture = qualifierEnd > start && text.charAt(qualifierEnd - 1) == 'x';
+        if (capture) {
+            qualifierEnd--;
+        }
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = start; i < qualifierEnd; i++) {
+            final char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h' && fromColumn < 0) {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8' && fromRow < 0) {
+                fromRow = '8' - c;
+            } else {
+                return MoveUtils.NULL_MOVE;
+            }
+        }
+        if (pieceType == PieceType.PAWN) {
+            return parsePawnMove(board, alliance, to, capture, fromColumn, promotionType);
+        }
+        if (promotionType != null) {
+            return MoveUtils.NULL_MOVE;
+        }
+        long candidates = board.getPieceBitboard(alliance, pieceType) &
+                          attacksFrom(pieceType, to, board.getOccupancy());
+        Move found = MoveUtils.NULL_MOVE;
+        while (candidates != 0L) {
+            final int from = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if ((fromColumn >= 0 && (from & 7) != fromColumn) || (fromRow >= 0 && (from >>> 3) != fromRow)) {
+                continue;
+            }
+            final Move move = board.currentPlayer().getLegalMove(from, to);
+            if (move != MoveUtils.NULL_MOVE) {
+                if (found != MoveUtils.NULL_MOVE) {
+                    return MoveUtils.NULL_MOVE;
+                }
+                found = move;
+            }
+        }
+        return found;
+    }
+
+    private static Move parsePawnMove(final Board board,
+                                      final Alliance alliance,
+                                      final int to,
+                                      final boolean capture,
+                                      final int fromColumn,
+                                      final PieceType promotionType) {
+        final int behind = alliance.isWhite() ? NUM_COLUMNS : -NUM_COLUMNS;
+        final int from;
+        if (capture) {
+            if (fromColumn < 0 || Math.abs(fromColumn - (to & 7)) != 1) {
+                return MoveUtils.NULL_MOVE;
+            }
+            from = to + behind + fromColumn - (to & 7);
+        } else {
+            if (fromColumn >= 0 && fromColumn != (to & 7)) {
+                return MoveUtils.NULL_MOVE;
+            }
+            final int oneBehind = to + behind;
+            from = BitBoardUtils.isSet(board.getPieceBitboard(alliance, PieceType.PAWN), oneBehind) ?
+                    oneBehind : oneBehind + behind;
+        }
+        if (from < 0 || from >= BoardUtils.NUM_TILES) {
+            return MoveUtils.NULL_MOVE;
+        }
+        return promotionType != null ?
+                board.currentPlayer().getLegalMove(from, to, promotionType) :
+                board.currentPlayer().getLegalMove(from, to);
+    }
+
+    /**
+     * Appends the file, rank or both of from that tell it apart from the other pieces of its kind that can legally
+     * move to to: the file if that is unique among them, otherwise the rank if that is, otherwise the square.
+     */
+    private static void appendDisambiguation(final StringBuilder san,
+                                             final Board board,
+                                             final Piece movedPiece,
+                                             final int from,
+                                             final int to) {
+        final Alliance alliance = movedPiece.getPieceAllegiance();
+        final PieceType pieceType = movedPiece.getPieceType();
+        final long occupancy = board.getOccupancy();
+        long rivals = board.getPieceBitboard(alliance, pieceType) & attacksFrom(pieceType, to, occupancy) &
+                      ~BitBoardUtils.bit(from);
+        boolean sameFile = false;
+        boolean sameRank = false;
+        boolean ambiguous = false;
+        while (rivals != 0L) {
+            final int rival = Long.numberOfTrailingZeros(rivals);
+            rivals &= rivals - 1;
+            if (!leavesKingSafe(board, alliance, rival, to, occupancy)) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= (rival & 7) == (from & 7);
+            sameRank |= (rival >>> 3) == (from >>> 3);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append(fileOf(from));
+        } else if (!sameRank) {
+            san.append(rankOf(from));
+        } else {
+            san.append(squareName(from));
+        }
+    }
+
+    /**
+     * Whether moving the piece of alliance on from to to, which it attacks, leaves its king out of check.
+     */
+    private static boolean leavesKingSafe(final Board board,
+                                          final Alliance alliance,
+                                          final int from,
+                                          final int to,
+                                          final long occupancy) {
+        final long after = (occupancy & ~BitBoardUtils.bit(from)) | BitBoardUtils.bit(to);
+        return (board.getAttackersOfTile(board.getKingPosition(alliance), alliance.opposite(), after) &
+                ~BitBoardUtils.bit(to)) == 0L;
+    }
+
+    /**
+     * "#", "+" or "" as move mates, checks or does neither, found by applying move to a copy of the piece
+     * bitboards and looking for the defender's evasions there.
+     */
+    private static String checkSuffix(final Board board,
+                                      final Move move) {
+        final Alliance mover = move.getMovedPiece().getPieceAllegiance();
+        final Alliance defender = mover.opposite();
+        final long[] pieces = new long[BitBoardUtils.NUM_PIECE_BITBOARDS];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                pieces[BitBoardUtils.pieceIndex(alliance, pieceType)] = board.getPieceBitboard(alliance, pieceType);
+            }
+        }
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        final PieceType movedType = move.getMovedPiece().getPieceType();
+        final PieceType arrivingType = move instanceof PawnPromotion ?
+                ((PawnPromotion) move).getPromotionPiece().getPieceType() : movedType;
+        pieces[BitBoardUtils.pieceIndex(mover, movedType)] &= ~BitBoardUtils.bit(from);
+        pieces[BitBoardUtils.pieceIndex(mover, arrivingType)] |= BitBoardUtils.bit(to);
+        if (move.isAttack()) {
+            final Piece attackedPiece = move.getAttackedPiece();
+            pieces[BitBoardUtils.pieceIndex(defender, attackedPiece.getPieceType())] &=
+                    ~BitBoardUtils.bit(attackedPiece.getPiecePosition());
+        }
+        if (move.isCastlingMove()) {
+            final int rankStart = to & ~7;
+            final boolean kingSide = move instanceof KingSideCastleMove;
+            final int rookFrom = rankStart + (kingSide ? KING_SIDE_ROOK_COLUMN : QUEEN_SIDE_ROOK_COLUMN);
+            final int rookTo = kingSide ? to - 1 : to + 1;
+            pieces[BitBoardUtils.pieceIndex(mover, PieceType.ROOK)] ^=
+                    BitBoardUtils.bit(rookFrom) | BitBoardUtils.bit(rookTo);
+        }
+        long occupancy = 0L;
+        for (final long bitboard : pieces) {
+            occupancy |= bitboard;
+        }
+        final int king = Long.numberOfTrailingZeros(pieces[BitBoardUtils.pieceIndex(defender, PieceType.KING)]);
+        final long checkers = BitBoardUtils.attackersOf(king, mover, pieces, occupancy);
+        if (checkers == 0L) {
+            return "";
+        }
+        final int enPassantSquare = move instanceof PawnJump ? (from + to) >>> 1 : -1;
+        return hasEvasion(pieces, occupancy, defender, king, checkers, enPassantSquare) ? "+" : "#";
+    }
+
+    /**
+     * Whether defender, whose king on king is attacked by checkers, has a legal move in the position given by
+     * pieces and occupancy.
+     */
+    private static boolean hasEvasion(final long[] pieces,
+                                      final long occupancy,
+                                      final Alliance defender,
+                                      final int king,
+                                      final long checkers,
+                                      final int enPassantSquare) {
+        final Alliance attacker = defender.opposite();
+        final long defenderOccupancy = occupancyOf(pieces, defender);
+        final long withoutKing = occupancy & ~BitBoardUtils.bit(king);
+        long kingTargets = BitBoardUtils.kingAttacks(king) & ~defenderOccupancy;
+        while (kingTargets != 0L) {
+            final int target = Long.numberOfTrailingZeros(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if (BitBoardUtils.attackersOf(target, attacker, pieces, withoutKing) == 0L) {
+                return true;
+            }
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return false;
+        }
+        final int checker = Long.numberOfTrailingZeros(checkers);
+        final long targets = checkers | BitBoardUtils.between(king, checker);
+        for (final PieceType pieceType : new PieceType[] {PieceType.KNIGHT, PieceType.BISHOP,
+                                                          PieceType.ROOK, PieceType.QUEEN}) {
+            long defenders = pieces[BitBoardUtils.pieceIndex(defender, pieceType)];
+            while (defenders != 0L) {
+                final int from = Long.numberOfTrailingZeros(defenders);
+                defenders &= defenders - 1;
+                long moves = attacksFrom(pieceType, from, occupancy) & targets;
+                while (moves != 0L) {
+                    final int to = Long.numberOfTrailingZeros(moves);
+                    moves &= moves - 1;
+                    if (isSafeEvasion(pieces, occupancy, attacker, king, from, to, to)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        final int forward = defender.isWhite() ? -NUM_COLUMNS : NUM_COLUMNS;
+        final int startRow = defender.isWhite() ? 6 : 1;
+        long pawns = pieces[BitBoardUtils.pieceIndex(defender, PieceType.PAWN)];
+        while (pawns != 0L) {
+            final int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            final long captures = BitBoardUtils.pawnAttacks(defender, from);
+            if ((captures & checkers) != 0L &&
+                    isSafeEvasion(pieces, occupancy, attacker, king, from, checker, checker)) {
+                return true;
+            }
+            if (enPassantSquare >= 0 && BitBoardUtils.isSet(captures, enPassantSquare) &&
+                    isSafeEvasion(pieces, occupancy, attacker, king, from, enPassantSquare,
+                                  enPassantSquare - forward)) {
+                return true;
+            }
+            final int push = from + forward;
+            if (BitBoardUtils.isSet(occupancy, push)) {
+                continue;
+            }
+            if (BitBoardUtils.isSet(targets, push) &&
+                    isSafeEvasion(pieces, occupancy, attacker, king, from, push, push)) {
+                return true;
+            }
+            final int jump = push + forward;
+            if ((from >>> 3) == startRow && !BitBoardUtils.isSet(occupancy, jump) &&
+                    BitBoardUtils.isSet(targets, jump) &&
+                    isSafeEvasion(pieces, occupancy, attacker, king, from, jump, jump)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the king on king is out of check once the piece on from has moved to to, removing any attacker on
+     * captured.
+     */
+    private static boolean isSafeEvasion(final long[] pieces,
+                                         final long occupancy,
+                                         final Alliance attacker,
+                                         final int king,
+                                         final int from,
+                                         final int to,
+                                         final int captured) {
+        final long after = (occupancy & ~BitBoardUtils.bit(from) & ~BitBoardUtils.bit(captured)) |
+                           BitBoardUtils.bit(to);
+        return (BitBoardUtils.attackersOf(king, attacker, pieces, after) & ~BitBoardUtils.bit(captured)) == 0L;
+    }
+
+    private static long attacksFrom(final PieceType pieceType,
+                                    final int square,
+                                    final long occupancy) {
+        switch (pieceType) {
+            case KNIGHT:
+                return BitBoardUtils.knightAttacks(square);
+            case BISHOP:
+                return BitBoardUtils.bishopAttacks(square, occupancy);
+            case ROOK:
+                return BitBoardUtils.rookAttacks(square, occupancy);
+            case QUEEN:
+                return BitBoardUtils.queenAttacks(square, occupancy);
+            case KING:
+                return BitBoardUtils.kingAttacks(square);
+            default:
+                throw new RuntimeException("no attack set for " + pieceType);
+        }
+    }
+
+    private static long occupancyOf(final long[] pieces,
+                                    final Alliance alliance) {
+        long occupancy = 0L;
+        for (int i = 0; i < NUM_PIECE_TYPES; i++) {
+            occupancy |= pieces[alliance.ordinal() * NUM_PIECE_TYPES + i];
+        }
+        return occupancy;
+    }
+
+    private static String stripSuffixes(final String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return san.substring(0, end);
+    }
+
+    private static PieceType pieceTypeOf(final char letter) {
+        for (final PieceType pieceType : PieceType.values()) {
+            if (pieceType.toString().charAt(0) == letter) {
+                return pieceType;
+            }
+        }
+        return null;
+    }
+
+    private static int squareOf(final char file,
+                                final char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ('8' - rank) * NUM_COLUMNS + (file - 'a');
+    }
+
+    private static char fileOf(final int square) {
+        return (char) ('a' + (square & 7));
+    }
+
+    private static char rankOf(final int square) {
+        return (char) ('8' - (square >>> 3));
+    }
+
+    private static String squareName(final int square) {
+        return BoardUtils.INSTANCE.getPositionAtCoordinate(square);
+    }
+}
@@ -0,0 +1,469 @@
+package com.chess.uci;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.search.BoardEvaluator;
+import com.chess.engine.search.IterativeDeepening;
+import com.chess.engine.search.NnueEvaluator;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.TaperedEvaluator;
+import com.chess.engine.search.TranspositionTable;
+import com.chess.pgn.FenUtilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A Universal Chess Interface front-end reading commands from an input stream and writing replies to an output
+ * stream, for running the engine headless under a GUI or tournament manager.
+ *
+ * Commands are read on the calling thread and each search runs on its own thread, so {@code stop},
+ * {@code isready} and {@code quit} are answered while it thinks. A {@code position} command that extends the
+ * previous one by further moves, as GUIs send during a game, only plays the new moves. The positions played since
+ * the last capture or pawn move are passed to the search, which scores a repetition of any of them as a draw.
+ */
+public final class UciEngine {
+
+    static final String ENGINE_NAME = "BTL Java";
+    static final String ENGINE_AUTHOR = "the BTL Java authors";
+
+    static final int MIN_HASH_MB = 1;
+    static final int MAX_HASH_MB = 1024;
+    static final int MAX_THREADS = 64;
+
+    /**
+     * Time kept back from every move for reading the command and printing the reply.
+     */
+    static final long MOVE_OVERHEAD_MILLIS = 30;
+    static final int DEFAULT_MOVES_TO_GO = 30;
+
+    private static final String START_POSITION = "startpos";
+    /**
+     * The EvalFile value that selects the handcrafted evaluation instead of a network.
+     */
+    private static final String NO_EVAL_FILE = "<empty>";
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private TranspositionTable transpositionTable;
+    private int threads;
+    private BoardEvaluator evaluator;
+    private Board board;
+    private String positionBase;
+    private final List<String> positionMoves;
+    private final List<Long> positionKeys;
+    private Thread searchThread;
+    private IterativeDeepening search;
+    private CountDownLatch stopLatch;
+
+    public UciEngine(final InputStream in,
+                     final PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        this.out = out;
+        this.transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+        this.threads = 1;
+        this.evaluator = new TaperedEvaluator();
+        this.board = Board.createStandardBoard();
+        this.positionBase = START_POSITION;
+        this.positionMoves = new ArrayList<>();
+        this.positionKeys = new ArrayList<>();
+    }
+
+    public static void main(final String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+
+    /**
+     * Handles commands until {@code quit} or the end of the input.
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = this.in.readLine()) != null) {
+            if (!handle(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+    }
+
+    /**
+     * Handles one command line and returns false for {@code quit}.
+     */
+    boolean handle(final String line) {
+        final String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + ENGINE_NAME);
+                send("id author " + ENGINE_AUTHOR);
+                send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB +
+                     " min " + MIN_HASH_MB + " max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name EvalFile type string default " + NO_EVAL_FILE);
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                stopSearch();
+                this.transpositionTable.clear();
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                startSearch(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            case "":
+                break;
+            default:
+                send("info string unknown command " + tokens[0]);
+                break;
+        }
+        return true;
+    }
+
+    private void setOption(final String[] tokens) {
+        final int nameIndex = indexOf(tokens, "name");
+        final int valueIndex = indexOf(tokens, "value");
+        if (nameIndex < 0 || valueIndex < nameIndex || valueIndex + 1 >= tokens.length) {
+            send("info string malformed setoption");
+            return;
+        }
+        final String name = String.join(" ", Arrays.copyOfRange(tokens, nameIndex + 1, valueIndex));
+        final String value = tokens[valueIndex + 1];
+        if (name.equalsIgnoreCase("EvalFile")) {
+            setEvalFile(String.join(" ", Arrays.copyOfRange(tokens, valueIndex + 1, tokens.length)));
+            return;
+        }
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                final int sizeMb = clamp(Integer.parseInt(value), MIN_HASH_MB, MAX_HASH_MB);
+                if (sizeMb != this.transpositionTable.getSizeMb()) {
+                    this.transpositionTable = new TranspositionTable(sizeMb);
+                }
+            } else if (name.equalsIgnoreCase("Threads")) {
+                this.threads = clamp(Integer.parseInt(value), 1, MAX_THREADS);
+            } else {
+                send("info string unknown option " + name);
+            }
+        } catch (final NumberFormatException e) {
+            send("info string bad value " + value + " for option " + name);
+        }
+    }
+
+    /**
+     * Evaluates with the NNUE network in file, or with the handcrafted evaluation for {@value #NO_EVAL_FILE}. A
+     * file that cannot be loaded leaves the current evaluation in place. Changing the evaluation clears the hash
+     * table, whose scores came from the old one.
+     */
+    private void setEvalFile(final String file) {
+        if (file.isEmpty() || file.equals(NO_EVAL_FILE)) {
+            this.evaluator = new TaperedEvaluator();
+            this.transpositionTable.clear();
+            return;
+        }
+        try {
+            this.evaluator = NnueEvaluator.load(Paths.get(file));
+            this.transpositionTable.clear();
+            send("info string loaded EvalFile " + file);
+        } catch (final IOException | RuntimeException e) {
+            send("info string cannot load EvalFile " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void setPosition(final String[] tokens) {
+        final int movesIndex = indexOf(tokens, "moves");
+        final int baseEnd = movesIndex < 0 ? tokens.length : movesIndex;
+        final String base;
+        if (tokens.length > 1 && tokens[1].equals(START_POSITION)) {
+            base = START_POSITION;
+        } else if (tokens.length > 2 && tokens[1].equals("fen")) {
+            base = String.join(" ", Arrays.copyOfRange(tokens, 2, baseEnd));
+        } else {
+            send("info string malformed position");
+            return;
+        }
+        final List<String> moves = movesIndex < 0 ?
+                new ArrayList<>() : Arrays.asList(tokens).subList(movesIndex + 1, tokens.length);
+
+        int played = 0;
+        if (!base.equals(this.positionBase) || !isPrefix(this.positionMoves, moves)) {
+            try {
+                this.board = base.equals(START_POSITION) ?
+                        Board.createStandardBoard() : FenUtilities.createGameFromFEN(base);
+            } catch (final RuntimeException e) {
+                send("info string bad fen " + base);
+                this.board = Board.createStandardBoard();
+                this.positionBase = START_POSITION;
+                this.positionMoves.clear();
+                this.positionKeys.clear();
+                return;
+            }
+            this.positionBase = base;
+            this.positionMoves.clear();
+            this.positionKeys.clear();
+        } else {
+            played = this.positionMoves.size();
+        }
+        for (final String notation : moves.subList(played, moves.size())) {
+            final Move move = parseMove(this.board, notation);
+            if (move == MoveUtils.NULL_MOVE) {
+                send("info string illegal move " + notation);
+                return;
+            }
+            final MoveTransition transition = this.board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                send("info string illegal move " + notation);
+                return;
+            }
+            if (move.isAttack() || move.getMovedPiece().getPieceType() == PieceType.PAWN) {
+                this.positionKeys.clear();
+            } else {
+                this.positionKeys.add(this.board.getZobristKey());
+            }
+            this.board = transition.getToBoard();
+            this.positionMoves.add(notation);
+        }
+    }
+
+    /**
+     * The legal move of board in long algebraic notation, or {@link MoveUtils#NULL_MOVE}.
+     */
+    static Move parseMove(final Board board,
+                          final String notation) {
+        if (notation.length() < 4 || notation.length() > 5) {
+            return MoveUtils.NULL_MOVE;
+        }
+        final String from = notation.substring(0, 2);
+        final String to = notation.substring(2, 4);
+        if (!BoardUtils.POSITION_TO_COORDINATE.containsKey(from) ||
+            !BoardUtils.POSITION_TO_COORDINATE.containsKey(to)) {
+            return MoveUtils.NULL_MOVE;
+        }
+        if (notation.length() == 4) {
+            return MoveUtils.getMove(board, from, to);
+        }
+        final PieceType promotionType = promotionType(notation.charAt(4));
+        if (promotionType == null) {
+            return MoveUtils.NULL_MOVE;
+        }
+        return MoveFactory.createPromotionMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition(from),
+                BoardUtils.INSTANCE.getCoordinateAtPosition(to), promotionType);
+    }
+
+    private static PieceType promotionType(final char letter) {
+        switch (letter) {
+            case 'q':
+                return PieceType.QUEEN;
+            case 'r':
+                return PieceType.ROOK;
+            case 'b':
+                return PieceType.BISHOP;
+            case 'n':
+                return PieceType.KNIGHT;
+            default:
+                return null;
+        }
+    }
+
+    private void startSearch(final String[] tokens) {
+        final SearchLimits.Builder limits = new SearchLimits.Builder();
+        final Alliance side = this.board.currentPlayer().getAlliance();
+        long remaining = -1;
+        long increment = 0;
+        int movesToGo = DEFAULT_MOVES_TO_GO;
+        boolean infinite = false;
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                final String value = i + 1 < tokens.length ? tokens[i + 1] : "";
+                switch (tokens[i]) {
+                    case "depth":
+                        limits.setMaxDepth(Integer.parseInt(value));
+                        i++;
+                        break;
+                    case "movetime":
+                        limits.setMoveTimeMillis(Math.max(1, Long.parseLong(value) - MOVE_OVERHEAD_MILLIS));
+                        i++;
+                        break;
+                    case "nodes":
+                        limits.setMaxNodes(Long.parseLong(value));
+                        i++;
+                        break;
+                    case "wtime":
+                    case "btime":
+                        if (tokens[i].charAt(0) == (side.isWhite() ? 'w' : 'b')) {
+                            remaining = Long.parseLong(value);
+                        }
+                        i++;
+                        break;
+                    case "winc":
+                    case "binc":
+                        if (tokens[i].charAt(0) == (side.isWhite() ? 'w' : 'b')) {
+                            increment = Long.parseLong(value);
+                        }
+                        i++;
+                        break;
+                    case "movestogo":
+                        movesToGo = Math.max(1, Integer.parseInt(value));
+                        i++;
+                        break;
+                    case "infinite":
+                        infinite = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (final NumberFormatException e) {
+            send("info string malformed go");
+            return;
+        }
+        if (remaining >= 0 && !infinite) {
+            limits.setMoveTimeMillis(allocateTime(remaining, increment, movesToGo));
+        }
+
+        final IterativeDeepening iterativeDeepening = new IterativeDeepening(limits.build(),
+                this.transpositionTable, this.threads, this.evaluator);
+        iterativeDeepening.setListener(this::sendInfo);
+        iterativeDeepening.setGameHistory(this.positionKeys.stream().mapToLong(Long::longValue).toArray());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Board root = this.board;
+        final boolean waitForStop = infinite;
+        this.search = iterativeDeepening;
+        this.stopLatch = latch;
+        this.searchThread = new Thread(() -> {
+            final Move bestMove = iterativeDeepening.execute(root);
+            if (waitForStop) {
+                awaitUninterruptibly(latch);
+            }
+            send("bestmove " + (bestMove == MoveUtils.NULL_MOVE ?
+                    MoveEncoding.toString(MoveEncoding.NONE) : MoveUtils.toLongAlgebraicNotation(bestMove)));
+        }, "uci-search");
+        this.searchThread.start();
+    }
+
+    /**
+     * The time to spend on a move given the time left on the clock: an even share of it over the moves to the next
+     * time control, plus most of the increment, never more than what is left less the move overhead.
+     */
+    static long allocateTime(final long remaining,
+                             final long increment,
+                             final int movesToGo) {
+        final long available = Math.max(1, remaining - MOVE_OVERHEAD_MILLIS);
+        return Math.max(1, Math.min(available, remaining / movesToGo + increment * 3 / 4));
+    }
+
+    /**
+     * Stops the running search, if any, and waits for its {@code bestmove}.
+     */
+    private void stopSearch() {
+        if (this.searchThread == null) {
+            return;
+        }
+        this.stopLatch.countDown();
+        this.search.stop();
+        try {
+            this.searchThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.searchThread = null;
+        this.search = null;
+        this.stopLatch = null;
+    }
+
+    private void sendInfo(final int depth,
+                          final int score,
+                          final long nodes,
+                          final long elapsedMillis,
+                          final int[] principalVariation) {
+        final StringBuilder info = new StringBuilder("info depth ").append(depth);
+        if (IterativeDeepening.isMateScore(score)) {
+            info.append(" score mate ").append(IterativeDeepening.movesToMate(score));
+        } else {
+            info.append(" score cp ").append(score);
+        }
+        info.append(" nodes ").append(nodes)
+            .append(" nps ").append(nodes * 1000 / Math.max(1, elapsedMillis))
+            .append(" time ").append(elapsedMillis)
+            .append(" hashfull ").append(this.transpositionTable.hashfull());
+        if (principalVariation.length > 0) {
+            info.append(" pv");
+            for (final int move : principalVariation) {
+                info.append(' ').append(MoveEncoding.toString(move));
+            }
+        }
+        send(info.toString());
+    }
+
+    private void send(final String message) {
+        synchronized (this.out) {
+            this.out.println(message);
+            this.out.flush();
+        }
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isPrefix(final List<String> prefix,
+                                    final List<String> list) {
+        return prefix.size() <= list.size() && prefix.equals(list.subList(0, prefix.size()));
+    }
+
+    private static int indexOf(final String[] tokens,
+                               final String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int clamp(final int value,
+                             final int min,
+                             final int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
@@ -0,0 +1,63 @@
+package com.chess.engine.board;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BitBoardUtilsTest {
+
+    /**
+     * The tiles between two aligned tiles are the slider attacks from each towards the other, as seen on an
+     * otherwise empty board; tiles that are not aligned have none.
+     */
+    @Test
+    void betweenMatchesSliderRays() {
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (int to = 0; to < BoardUtils.NUM_TILES; to++) {
+                long expected = BitBoardUtils.EMPTY;
+                if (from != to) {
+                    final long rookRay = MagicBitboards.rookAttacks(from, BitBoardUtils.bit(to));
+                    final long bishopRay = MagicBitboards.bishopAttacks(from, BitBoardUtils.bit(to));
+                    if (BitBoardUtils.isSet(rookRay, to)) {
+                        expected = rookRay & MagicBitboards.rookAttacks(to, BitBoardUtils.bit(from));
+                    } else if (BitBoardUtils.isSet(bishopRay, to)) {
+                        expected = bishopRay & MagicBitboards.bishopAttacks(to, BitBoardUtils.bit(from));
+                    }
+                }
+                assertEquals(expected, BitBoardUtils.between(from, to), from + " to " + to);
+            }
+        }
+    }
+
+    /**
+     * Initializing the magic tables before this class, as the magic number generator does, must work: the two
+     * classes are loaded in that order by a fresh class loader.
+     */
+    @Test
+    void magicBitboardsInitializeFirst() throws Exception {
+        try (final URLClassLoader loader = new URLClassLoader(classPath(), ClassLoader.getPlatformClassLoader())) {
+            final Class<?> magics = Class.forName(MagicBitboards.class.getName(), true, loader);
+            final Method rookAttacks = magics.getMethod("rookAttacks", int.class, long.class);
+            assertEquals(MagicBitboards.rookAttacks(0, BitBoardUtils.EMPTY),
+                         rookAttacks.invoke(null, 0, BitBoardUtils.EMPTY));
+            final Class<?> bitBoards = Class.forName(BitBoardUtils.class.getName(), true, loader);
+            final Method between = bitBoards.getMethod("between", int.class, int.class);
+            assertEquals(BitBoardUtils.between(0, 63), between.invoke(null, 0, 63));
+        }
+    }
+
+    private static URL[] classPath() throws MalformedURLException {
+        final String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+        final URL[] urls = new URL[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            urls[i] = new File(entries[i]).toURI().toURL();
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,73 @@
+package com.chess.engine.board;
+
+import com.chess.engine.perft.PerftPosition;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveEncodingTest {
+
+    private static final int DEPTH = 2;
+
+    /**
+     * Every legal move near the reference positions decodes from its encoding to the same move, and the moves the
+     * search board generates decode to the legal move they encode.
+     */
+    @Test
+    void legalMovesRoundTrip() {
+        final int[] kinds = new int[MoveEncoding.PROMOTION_CAPTURE + 1];
+        final Set<PieceType> promotions = EnumSet.noneOf(PieceType.class);
+        for (final PerftPosition position : PerftPosition.values()) {
+            walk(FenUtilities.createGameFromFEN(position.getFen()), DEPTH, kinds, promotions);
+        }
+        for (int kind = 0; kind < kinds.length; kind++) {
+            assertTrue(kinds[kind] > 0, "no move of kind " + kind);
+        }
+        assertEquals(EnumSet.of(PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN), promotions);
+    }
+
+    private static void walk(final Board board,
+                             final int depth,
+                             final int[] kinds,
+                             final Set<PieceType> promotions) {
+        int legalMoves = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                continue;
+            }
+            legalMoves++;
+            final int encoded = MoveEncoding.encode(move);
+            final Move decoded = MoveEncoding.decode(board, encoded);
+            assertEquals(move, decoded);
+            assertEquals(move.getClass(), decoded.getClass());
+            assertEquals(encoded, MoveEncoding.encode(decoded));
+            kinds[MoveEncoding.kind(encoded)]++;
+            if (MoveEncoding.isPromotion(encoded)) {
+                promotions.add(MoveEncoding.promotionPieceType(encoded));
+            }
+            if (depth > 1) {
+                walk(transition.getToBoard(), depth - 1, kinds, promotions);
+            }
+        }
+
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final MoveBuffer moves = new MoveBuffer();
+        searchBoard.generateMoves(moves);
+        int searchBoardLegalMoves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (searchBoard.makeMove(moves.get(i))) {
+                searchBoardLegalMoves++;
+                assertEquals(moves.get(i), MoveEncoding.encode(MoveEncoding.decode(board, moves.get(i))));
+            }
+            searchBoard.unmakeMove();
+        }
+        assertEquals(legalMoves, searchBoardLegalMoves);
+    }
+}
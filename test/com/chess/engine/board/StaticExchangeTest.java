@@ -0,0 +1,81 @@
+package com.chess.engine.board;
+
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticExchangeTest {
+
+    @Test
+    void capturesOfDefendedAndUndefendedPawns() {
+        assertEquals(100, see("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+        assertEquals(100 - 500, see("4k3/8/2p5/3p4/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+        assertEquals(300 - 330, see("4k3/8/4p3/3n4/8/5B2/8/4K3 w - - 0 1", "f3", "d5"));
+        assertEquals(0, see("4k3/8/8/8/8/8/8/3RK3 w - - 0 1", "d1", "d5"));
+    }
+
+    /**
+     * Sliders lined up behind a capturing piece join the exchange once it has left the line.
+     */
+    @Test
+    void batteriesJoinTheExchange() {
+        assertEquals(100, see("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+        assertEquals(100 - 500, see("3rk3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+        assertEquals(300 - 330 + 100, see("4k3/6p1/5n2/8/3B4/2Q5/8/4K3 w - - 0 1", "d4", "f6"));
+    }
+
+    /**
+     * The pawn taken en passant leaves its tile, opening the file behind it for the recapture.
+     */
+    @Test
+    void enPassantCaptures() {
+        assertEquals(100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5", "d6"));
+        assertEquals(0, see("4k3/2p5/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5", "d6"));
+        assertEquals(100, see("3rk3/8/8/3pP3/8/8/8/3RK3 w - d6 0 1", "e5", "d6"));
+    }
+
+    /**
+     * A king only recaptures a piece that is not defended.
+     */
+    @Test
+    void kingsOnlyTakeUndefendedPieces() {
+        assertEquals(100, see("4k3/8/8/8/8/8/3p4/4K3 w - - 0 1", "e1", "d2"));
+        assertEquals(100 - 500 + 100, see("4k3/8/8/8/8/4p3/3p4/3RK3 w - - 0 1", "d1", "d2"));
+        assertEquals(0, see("3rk3/4p3/8/8/8/8/8/3RK3 w - - 0 1", "d1", "d8"));
+        assertEquals(500, see("3rk3/4p3/8/8/8/8/3R4/3RK3 w - - 0 1", "d2", "d8"));
+    }
+
+    @Test
+    void hangingPieces() {
+        assertTrue(isHanging("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1", "d5"));
+        assertFalse(isHanging("4k3/8/2p5/3p4/8/8/8/3RK3 w - - 0 1", "d5"));
+        assertTrue(isHanging("4k3/8/3p4/4n3/3P4/8/8/4K3 w - - 0 1", "e5"));
+        assertFalse(isHanging("4k3/8/8/4n3/8/8/8/4K3 w - - 0 1", "e5"));
+        assertFalse(isHanging("4k3/8/8/8/8/2p5/3p4/4K3 w - - 0 1", "d2"));
+        assertTrue(isHanging("4k3/8/8/8/8/8/3p4/4K3 w - - 0 1", "d2"));
+        assertFalse(isHanging("4k3/8/8/8/8/8/8/4K3 w - - 0 1", "e1"));
+    }
+
+    /**
+     * The exchange value of the capture from one tile to another, which must be the same through both boards.
+     */
+    private static int see(final String fen,
+                           final String from,
+                           final String to) {
+        final Board board = FenUtilities.createGameFromFEN(fen);
+        final Move move = board.currentPlayer().getLegalMove(BoardUtils.POSITION_TO_COORDINATE.get(from),
+                BoardUtils.POSITION_TO_COORDINATE.get(to));
+        final int value = StaticExchange.evaluate(board, move);
+        assertEquals(value, StaticExchange.evaluate(new SearchBoard(board), MoveEncoding.encode(move)));
+        return value;
+    }
+
+    private static boolean isHanging(final String fen,
+                                     final String tile) {
+        return StaticExchange.isHanging(FenUtilities.createGameFromFEN(fen),
+                BoardUtils.POSITION_TO_COORDINATE.get(tile));
+    }
+}
@@ -0,0 +1,120 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.perft.PerftPosition;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The keys both boards update move by move against keys computed from scratch, at every node of a perft walk.
+ */
+class ZobristUtilsTest {
+
+    private static final int DEPTH = 3;
+
+    @Test
+    void boardKeysMatchKeysFromScratch() {
+        final int[] kinds = new int[MoveEncoding.PROMOTION_CAPTURE + 1];
+        for (final PerftPosition position : PerftPosition.values()) {
+            walk(FenUtilities.createGameFromFEN(position.getFen()), DEPTH, kinds);
+        }
+        assertCovered(kinds);
+    }
+
+    @Test
+    void searchBoardKeysMatchKeysFromScratch() {
+        final int[] kinds = new int[MoveEncoding.PROMOTION_CAPTURE + 1];
+        for (final PerftPosition position : PerftPosition.values()) {
+            final SearchBoard board = new SearchBoard(FenUtilities.createGameFromFEN(position.getFen()));
+            final MoveBuffer[] buffers = new MoveBuffer[DEPTH];
+            for (int ply = 0; ply < DEPTH; ply++) {
+                buffers[ply] = new MoveBuffer();
+            }
+            walk(board, DEPTH, buffers, kinds);
+        }
+        assertCovered(kinds);
+    }
+
+    private static void walk(final Board board,
+                             final int depth,
+                             final int[] kinds) {
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        final int enPassantTile = enPassantPawn == null ? -1 : enPassantPawn.getPiecePosition() +
+                BoardUtils.NUM_TILES_PER_ROW * enPassantPawn.getPieceAllegiance().getOppositeDirection();
+        final long[] pieceBitboards = new long[BitBoardUtils.NUM_PIECE_BITBOARDS];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                pieceBitboards[BitBoardUtils.pieceIndex(alliance, pieceType)] =
+                        board.getPieceBitboard(alliance, pieceType);
+            }
+        }
+        assertEquals(keyFromScratch(pieceBitboards, board.getNextMoveMaker(), board.getCastlingRights(),
+                enPassantTile), board.getZobristKey());
+        assertEquals(ZobristUtils.calculatePawnKey(pieceBitboards), board.getPawnKey());
+        if (depth == 0) {
+            return;
+        }
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                kinds[MoveEncoding.kind(MoveEncoding.encode(move))]++;
+                walk(transition.getToBoard(), depth - 1, kinds);
+            }
+        }
+    }
+
+    private static void walk(final SearchBoard board,
+                             final int depth,
+                             final MoveBuffer[] buffers,
+                             final int[] kinds) {
+        final long[] pieceBitboards = new long[BitBoardUtils.NUM_PIECE_BITBOARDS];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                pieceBitboards[BitBoardUtils.pieceIndex(alliance, pieceType)] =
+                        board.getPieceBitboard(alliance, pieceType);
+            }
+        }
+        assertEquals(keyFromScratch(pieceBitboards, board.getSideToMove(), board.getCastlingRights(),
+                board.getEnPassantTile()), board.getZobristKey());
+        assertEquals(ZobristUtils.calculatePawnKey(pieceBitboards), board.getPawnKey());
+        assertEquals(board.toBoard().getZobristKey(), board.getZobristKey());
+        if (depth == 0) {
+            return;
+        }
+        final MoveBuffer moves = buffers[depth - 1];
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            final long zobristKey = board.getZobristKey();
+            final long pawnKey = board.getPawnKey();
+            if (board.makeMove(moves.get(i))) {
+                kinds[MoveEncoding.kind(moves.get(i))]++;
+                walk(board, depth - 1, buffers, kinds);
+            }
+            board.unmakeMove();
+            assertEquals(zobristKey, board.getZobristKey());
+            assertEquals(pawnKey, board.getPawnKey());
+        }
+    }
+
+    private static long keyFromScratch(final long[] pieceBitboards,
+                                       final Alliance sideToMove,
+                                       final int castlingRights,
+                                       final int enPassantTile) {
+        return ZobristUtils.calculatePieceKey(pieceBitboards) ^
+                ZobristUtils.sideToMoveKey(sideToMove) ^
+                ZobristUtils.castlingKey(castlingRights) ^
+                ZobristUtils.enPassantKey(enPassantTile, sideToMove, pieceBitboards);
+    }
+
+    private static void assertCovered(final int[] kinds) {
+        for (final int kind : new int[]{MoveEncoding.KING_CASTLE, MoveEncoding.QUEEN_CASTLE,
+                MoveEncoding.EN_PASSANT, MoveEncoding.PROMOTION, MoveEncoding.PROMOTION_CAPTURE}) {
+            assertTrue(kinds[kind] > 0, "no move of kind " + kind);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.SearchBoard;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Move generation against the published perft counts, through both the immutable board and the search board.
+ */
+class PerftTest {
+
+    private static final long MAX_NODES = 5_000_000L;
+
+    @Test
+    void boardMatchesReferenceCounts() {
+        for (final PerftPosition position : PerftPosition.values()) {
+            final int depth = deepestAffordableDepth(position);
+            assertEquals(position.getExpectedNodes(depth),
+                         Perft.perft(FenUtilities.createGameFromFEN(position.getFen()), depth),
+                         position + " depth " + depth);
+        }
+    }
+
+    @Test
+    void searchBoardMatchesReferenceCounts() {
+        for (final PerftPosition position : PerftPosition.values()) {
+            final int depth = deepestAffordableDepth(position);
+            assertEquals(position.getExpectedNodes(depth),
+                         Perft.perft(new SearchBoard(FenUtilities.createGameFromFEN(position.getFen())), depth),
+                         position + " depth " + depth);
+        }
+    }
+
+    private static int deepestAffordableDepth(final PerftPosition position) {
+        int depth = 1;
+        while (depth < position.getMaxDepth() && position.getExpectedNodes(depth + 1) <= MAX_NODES) {
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,136 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveBuffer;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.perft.PerftPosition;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NnueEvaluatorTest {
+
+    private static final int DEPTH = 3;
+    private static final int KING_BUCKETS = 4;
+    private static final int HIDDEN_SIZE = 32;
+
+    /**
+     * With random weights that differ between king buckets, the accumulators the search board keeps up to date
+     * must score every node of a perft walk exactly as accumulators built from scratch, through king moves that
+     * change bucket, castling and promotions.
+     */
+    @Test
+    void incrementalAccumulatorsMatchRefresh() throws IOException {
+        final NnueEvaluator evaluator = load(randomNetwork());
+        final NnueNetwork network = evaluator.getNetwork();
+        final int[] kinds = new int[MoveEncoding.PROMOTION_CAPTURE + 1];
+        final int[] bucketChanges = new int[1];
+        for (final PerftPosition position : new PerftPosition[]{
+                PerftPosition.KIWIPETE, PerftPosition.POSITION_4, PerftPosition.POSITION_5}) {
+            final SearchBoard board = new SearchBoard(FenUtilities.createGameFromFEN(position.getFen()));
+            evaluator.attach(board);
+            final MoveBuffer[] buffers = new MoveBuffer[DEPTH];
+            for (int ply = 0; ply < DEPTH; ply++) {
+                buffers[ply] = new MoveBuffer();
+            }
+            walk(evaluator, network, board, DEPTH, buffers, kinds, bucketChanges);
+        }
+        assertTrue(kinds[MoveEncoding.KING_CASTLE] > 0 && kinds[MoveEncoding.QUEEN_CASTLE] > 0);
+        assertTrue(kinds[MoveEncoding.PROMOTION] > 0 && kinds[MoveEncoding.PROMOTION_CAPTURE] > 0);
+        assertTrue(bucketChanges[0] > 0);
+    }
+
+    @Test
+    void loadRejectsTruncatedFiles() throws IOException {
+        final byte[] bytes = randomNetwork();
+        load(bytes);
+        for (final int length : new int[]{0, 4, 12, 100, bytes.length / 2, bytes.length - 1}) {
+            final byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IOException.class, () -> load(truncated));
+        }
+        final byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+        assertThrows(IOException.class, () -> load(trailing));
+    }
+
+    private static void walk(final NnueEvaluator evaluator,
+                             final NnueNetwork network,
+                             final SearchBoard board,
+                             final int depth,
+                             final MoveBuffer[] buffers,
+                             final int[] kinds,
+                             final int[] bucketChanges) {
+        final int score = evaluator.evaluate(board);
+        assertEquals(new NnueAccumulator(network, board).evaluate(), score);
+        if (depth == 0) {
+            return;
+        }
+        final MoveBuffer moves = buffers[depth - 1];
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            final Alliance mover = board.getSideToMove();
+            if (board.makeMove(move)) {
+                kinds[MoveEncoding.kind(move)]++;
+                if (MoveEncoding.movedPieceType(move) == PieceType.KING &&
+                    network.kingBucket(mover, MoveEncoding.from(move)) !=
+                    network.kingBucket(mover, MoveEncoding.to(move))) {
+                    bucketChanges[0]++;
+                }
+                walk(evaluator, network, board, depth - 1, buffers, kinds, bucketChanges);
+            }
+            board.unmakeMove();
+            assertEquals(score, evaluator.evaluate(board));
+        }
+    }
+
+    private static NnueEvaluator load(final byte[] bytes) throws IOException {
+        final Path file = Files.createTempFile("network", ".nnue");
+        try {
+            Files.write(file, bytes);
+            return NnueEvaluator.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * A network file with small random weights, different in each of four king buckets, and biases in the middle
+     * of the activation range so that the hidden units are rarely clipped.
+     */
+    private static byte[] randomNetwork() {
+        final SplittableRandom random = new SplittableRandom(7);
+        final int featureWeights = KING_BUCKETS * NnueNetwork.FEATURES_PER_BUCKET * HIDDEN_SIZE;
+        final ByteBuffer buffer = ByteBuffer.allocate(8 + 2 * Integer.BYTES + BoardUtils.NUM_TILES +
+                (featureWeights + 3 * HIDDEN_SIZE) * Short.BYTES + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put("BTLNNUE1".getBytes(StandardCharsets.US_ASCII)).putInt(KING_BUCKETS).putInt(HIDDEN_SIZE);
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            buffer.put((byte) ((tile >>> 3 < 4 ? 0 : 2) + ((tile & 7) < 4 ? 0 : 1)));
+        }
+        for (int i = 0; i < featureWeights; i++) {
+            buffer.putShort((short) random.nextInt(-3, 4));
+        }
+        for (int i = 0; i < HIDDEN_SIZE; i++) {
+            buffer.putShort((short) (NnueNetwork.ACTIVATION_MAX / 2));
+        }
+        for (int i = 0; i < 2 * HIDDEN_SIZE; i++) {
+            buffer.putShort((short) random.nextInt(-64, 65));
+        }
+        buffer.putInt(random.nextInt(-1000, 1001));
+        return buffer.array();
+    }
+}
@@ -0,0 +1,53 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.MoveBuffer;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.perft.PerftPosition;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaperedEvaluatorTest {
+
+    private static final int DEPTH = 3;
+
+    /**
+     * The material, piece-square values and phase a search board keeps through make and unmake, and the evaluation
+     * built on them, match those of a fresh board of the same position at every node of a perft walk.
+     */
+    @Test
+    void incrementalTermsMatchFreshBoard() {
+        final TaperedEvaluator evaluator = new TaperedEvaluator();
+        for (final PerftPosition position : PerftPosition.values()) {
+            final SearchBoard board = new SearchBoard(FenUtilities.createGameFromFEN(position.getFen()));
+            final MoveBuffer[] buffers = new MoveBuffer[DEPTH];
+            for (int ply = 0; ply < DEPTH; ply++) {
+                buffers[ply] = new MoveBuffer();
+            }
+            walk(evaluator, board, DEPTH, buffers);
+        }
+    }
+
+    private static void walk(final TaperedEvaluator evaluator,
+                             final SearchBoard board,
+                             final int depth,
+                             final MoveBuffer[] buffers) {
+        final SearchBoard fresh = new SearchBoard(board.toBoard());
+        assertEquals(fresh.getMidgameScore(), board.getMidgameScore());
+        assertEquals(fresh.getEndgameScore(), board.getEndgameScore());
+        assertEquals(fresh.getGamePhase(), board.getGamePhase());
+        assertEquals(evaluator.evaluate(fresh), evaluator.evaluate(board));
+        if (depth == 0) {
+            return;
+        }
+        final MoveBuffer moves = buffers[depth - 1];
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (board.makeMove(moves.get(i))) {
+                walk(evaluator, board, depth - 1, buffers);
+            }
+            board.unmakeMove();
+        }
+    }
+}
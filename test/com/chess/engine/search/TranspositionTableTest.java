@@ -0,0 +1,134 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveEncoding;
+import com.chess.engine.perft.PerftPosition;
+import com.chess.pgn.FenUtilities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TranspositionTableTest {
+
+    private static final int[] SCORES = {
+            -SearchWorker.MATE, -SearchWorker.MATE + 7, -2500, -1, 0, 1, 2500, SearchWorker.MATE - 7, SearchWorker.MATE
+    };
+    private static final int[] DEPTHS = {0, 1, 17, 127, 255};
+    private static final int[] BOUNDS = {
+            TranspositionTable.BOUND_LOWER, TranspositionTable.BOUND_UPPER, TranspositionTable.BOUND_EXACT
+    };
+
+    @Test
+    void storedFieldsReadBack() {
+        final TranspositionTable table = new TranspositionTable(1);
+        long key = 0x9E3779B97F4A7C15L;
+        for (final Move legalMove : FenUtilities.createGameFromFEN(PerftPosition.POSITION_4.getFen())
+                .currentPlayer().getLegalMoves()) {
+            final int move = MoveEncoding.encode(legalMove);
+            for (final int score : SCORES) {
+                for (final int depth : DEPTHS) {
+                    for (final int bound : BOUNDS) {
+                        key = key * 6364136223846793005L + 1442695040888963407L;
+                        table.store(key, move, score, depth, bound);
+                        final long entry = table.probe(key);
+                        assertEquals(move, TranspositionTable.move(entry));
+                        assertEquals(score, TranspositionTable.score(entry));
+                        assertEquals(depth, TranspositionTable.depth(entry));
+                        assertEquals(bound, TranspositionTable.bound(entry));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Keys whose halves are equal all fold onto the first bucket, which holds four of them; a fifth replaces one,
+     * and no key ever reads another key's entry.
+     */
+    @Test
+    void collidingKeysShareABucket() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long[] keys = new long[5];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) (i + 1) << 32) | (i + 1);
+        }
+        for (int i = 0; i < 4; i++) {
+            table.store(keys[i], i + 1, 10 * i, 5, TranspositionTable.BOUND_EXACT);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 1, TranspositionTable.move(table.probe(keys[i])));
+            assertEquals(10 * i, TranspositionTable.score(table.probe(keys[i])));
+        }
+        table.store(keys[4], 5, 40, 5, TranspositionTable.BOUND_EXACT);
+        int hits = 0;
+        for (int i = 0; i < keys.length; i++) {
+            final long entry = table.probe(keys[i]);
+            if (entry != 0L) {
+                assertEquals(i + 1, TranspositionTable.move(entry));
+                hits++;
+            }
+        }
+        assertEquals(4, hits);
+        assertEquals(5, TranspositionTable.move(table.probe(keys[4])));
+        assertEquals(0L, table.probe(((long) 6 << 32) | 6));
+    }
+
+    /**
+     * Entries survive the start of a new search. A shallow bound does not overwrite a deeper one from the same
+     * search, but does overwrite one from an earlier search.
+     */
+    @Test
+    void entriesAgeAcrossSearches() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long key = 0x0123456789ABCDEFL;
+        table.store(key, 42, 100, 10, TranspositionTable.BOUND_LOWER);
+        table.store(key, 43, 50, 2, TranspositionTable.BOUND_LOWER);
+        assertEquals(10, TranspositionTable.depth(table.probe(key)));
+
+        table.newSearch();
+        final long entry = table.probe(key);
+        assertEquals(42, TranspositionTable.move(entry));
+        assertEquals(100, TranspositionTable.score(entry));
+        assertEquals(10, TranspositionTable.depth(entry));
+
+        table.store(key, MoveEncoding.NONE, 50, 2, TranspositionTable.BOUND_LOWER);
+        final long replaced = table.probe(key);
+        assertEquals(42, TranspositionTable.move(replaced));
+        assertEquals(50, TranspositionTable.score(replaced));
+        assertEquals(2, TranspositionTable.depth(replaced));
+
+        table.newSearch();
+        final long other = 0x7EDCBA9876543210L;
+        table.store(other, 7, -30, 4, TranspositionTable.BOUND_UPPER);
+        assertEquals(-30, TranspositionTable.score(table.probe(other)));
+        assertEquals(TranspositionTable.BOUND_UPPER, TranspositionTable.bound(table.probe(other)));
+    }
+
+    /**
+     * A mate found n plies below a node stored at one ply reads back as a mate n plies below the node at another.
+     */
+    @Test
+    void mateScoresAreStoredRelativeToTheNode() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long key = 0x5555AAAA5555AAAAL;
+        for (final int storePly : new int[]{0, 3, 10}) {
+            for (final int probePly : new int[]{0, 5, 20}) {
+                for (final int sign : new int[]{1, -1}) {
+                    final int matePlies = 4;
+                    final int score = sign * (SearchWorker.MATE - storePly - matePlies);
+                    table.store(key, MoveEncoding.NONE, SearchWorker.scoreToTable(score, storePly), 3,
+                            TranspositionTable.BOUND_EXACT);
+                    final int probed = SearchWorker.scoreFromTable(TranspositionTable.score(table.probe(key)),
+                            probePly);
+                    assertEquals(sign * (SearchWorker.MATE - probePly - matePlies), probed);
+                    assertTrue(SearchWorker.isMateScore(probed));
+                }
+            }
+        }
+        for (final int score : new int[]{-2500, -1, 0, 1, 2500}) {
+            assertEquals(score, SearchWorker.scoreToTable(score, 9));
+            assertEquals(score, SearchWorker.scoreFromTable(score, 9));
+        }
+    }
+}
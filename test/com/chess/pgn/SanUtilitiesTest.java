@@ -0,0 +1,87 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.MoveUtils;
+import com.chess.engine.perft.PerftPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SanUtilitiesTest {
+
+    private static final int ROUND_TRIP_DEPTH = 3;
+
+    /**
+     * Every legal move in the trees below the perft positions reads back as itself, and carries a check or mate
+     * suffix exactly when the position after it is check or mate.
+     */
+    @Test
+    void roundTripsEveryMove() {
+        for (final PerftPosition position : PerftPosition.values()) {
+            roundTrip(FenUtilities.createGameFromFEN(position.getFen()), ROUND_TRIP_DEPTH);
+        }
+    }
+
+    @Test
+    void disambiguatesByFileThenRankThenSquare() {
+        final Board board = FenUtilities.createGameFromFEN("1k6/8/8/8/4Q2Q/8/8/K6Q w - - 0 1");
+        assertEquals("Qee1", san(board, "e4", "e1"));
+        assertEquals("Q1e1", san(board, "h1", "e1"));
+        assertEquals("Qh4e1", san(board, "h4", "e1"));
+    }
+
+    @Test
+    void ignoresPinnedRivals() {
+        final Board board = FenUtilities.createGameFromFEN("4r2k/8/8/1N6/8/8/4N3/4K3 w - - 0 1");
+        assertEquals("Nd4", san(board, "b5", "d4"));
+    }
+
+    @Test
+    void marksMate() {
+        final Board board = FenUtilities.createGameFromFEN("6k1/5ppp/8/8/8/8/5PPP/1R4K1 w - - 0 1");
+        assertEquals("Rb8#", san(board, "b1", "b8"));
+    }
+
+    @Test
+    void parsesCastlingAndAnnotations() {
+        final Board board = FenUtilities.createGameFromFEN(PerftPosition.KIWIPETE.getFen());
+        assertEquals("O-O", SanUtilities.toSan(board, SanUtilities.parseSan(board, "0-0")));
+        assertEquals("O-O-O", SanUtilities.toSan(board, SanUtilities.parseSan(board, "O-O-O!?")));
+    }
+
+    @Test
+    void rejectsIllegalAndMalformedText() {
+        final Board board = Board.createStandardBoard();
+        assertSame(MoveUtils.NULL_MOVE, SanUtilities.parseSan(board, "e5"));
+        assertSame(MoveUtils.NULL_MOVE, SanUtilities.parseSan(board, "Nc4"));
+        assertSame(MoveUtils.NULL_MOVE, SanUtilities.parseSan(board, "Zz9"));
+        assertSame(MoveUtils.NULL_MOVE, SanUtilities.parseSan(board, ""));
+    }
+
+    private static void roundTrip(final Board board,
+                                  final int depth) {
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final String san = SanUtilities.toSan(board, move);
+            assertEquals(move, SanUtilities.parseSan(board, san), san);
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            final Board after = transition.getToBoard();
+            final String suffix = after.currentPlayer().isInCheckMate() ? "#" :
+                                  after.currentPlayer().isInCheck() ? "+" : "";
+            assertEquals(suffix, san.replaceAll("^[^+#]*", ""), san);
+            if (depth > 1) {
+                roundTrip(after, depth - 1);
+            }
+        }
+    }
+
+    private static String san(final Board board,
+                              final String from,
+                              final String to) {
+        return SanUtilities.toSan(board, Move.MoveFactory.createMove(board,
+                BoardUtils.INSTANCE.getCoordinateAtPosition(from), BoardUtils.INSTANCE.getCoordinateAtPosition(to)));
+    }
+}